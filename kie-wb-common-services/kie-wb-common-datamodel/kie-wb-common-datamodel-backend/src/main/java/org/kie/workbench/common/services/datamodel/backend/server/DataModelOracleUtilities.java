@@ -18,7 +18,6 @@ package org.kie.workbench.common.services.datamodel.backend.server;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +29,7 @@ import org.drools.workbench.models.datamodel.oracle.ModelField;
 import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
 import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.IndexedProjectDataModelOracle;
 import org.kie.workbench.common.services.datamodel.model.LazyModelField;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleBaselinePayload;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
@@ -154,6 +154,10 @@ public class DataModelOracleUtilities {
                                         final String fieldName ) {
         final String shortName = getFactNameFromType( oracle,
                                                       fullyQualifiedClassName );
+        if ( oracle instanceof IndexedProjectDataModelOracle ) {
+            return ( (IndexedProjectDataModelOracle) oracle ).getField( shortName,
+                                                                        fieldName );
+        }
         final ModelField[] fields = oracle.getProjectModelFields().get( shortName );
         if ( fields == null ) {
             return null;
@@ -171,6 +175,9 @@ public class DataModelOracleUtilities {
         if ( fullyQualifiedClassName == null ) {
             return null;
         }
+        if ( oracle instanceof IndexedProjectDataModelOracle ) {
+            return ( (IndexedProjectDataModelOracle) oracle ).getFactNameFromType( fullyQualifiedClassName );
+        }
         if ( oracle.getProjectModelFields().containsKey( fullyQualifiedClassName ) ) {
             return fullyQualifiedClassName;
         }
@@ -241,29 +248,76 @@ public class DataModelOracleUtilities {
         dataModel.setPackageNames( oracle.getProjectPackageNames() );
     }
 
+    //Content for a single type is retrieved by its key, rather than by filtering the Project's content for all types
     public static void populateDataModel( final PackageDataModelOracle oracle,
                                           final PackageDataModelOracleIncrementalPayload dataModel,
                                           final String usedFullyQualifiedClassName ) {
-        final Set<String> usedFullyQualifiedClassNames = new HashSet<String>();
-        usedFullyQualifiedClassNames.add( usedFullyQualifiedClassName );
-        dataModel.setModelFields( filterModelFields( usedFullyQualifiedClassNames,
-                                                     oracle.getProjectModelFields() ) );
-        dataModel.setFieldParametersType( filterFieldParametersTypes( usedFullyQualifiedClassNames,
+        final ModelField[] modelFields = oracle.getProjectModelFields().get( usedFullyQualifiedClassName );
+        final List<MethodInfo> methodInformation = oracle.getProjectMethodInformation().get( usedFullyQualifiedClassName );
+        dataModel.setModelFields( lookup( usedFullyQualifiedClassName,
+                                          oracle.getProjectModelFields() ) );
+        dataModel.setFieldParametersType( lookupFieldParametersTypes( usedFullyQualifiedClassName,
+                                                                      modelFields,
+                                                                      methodInformation,
                                                                       oracle.getProjectFieldParametersType() ) );
-        dataModel.setEventTypes( filterEventTypes( usedFullyQualifiedClassNames,
-                                                   oracle.getProjectEventTypes() ) );
-        dataModel.setTypeSources( filterTypeSources( usedFullyQualifiedClassNames,
-                                                     oracle.getProjectTypeSources() ) );
-        dataModel.setSuperTypes( filterSuperTypes( usedFullyQualifiedClassNames,
-                                                   oracle.getProjectSuperTypes() ) );
-        dataModel.setTypeAnnotations( filterTypeAnnotations( usedFullyQualifiedClassNames,
-                                                             oracle.getProjectTypeAnnotations() ) );
-        dataModel.setTypeFieldsAnnotations( filterTypeFieldsAnnotations( usedFullyQualifiedClassNames,
-                                                                         oracle.getProjectTypeFieldsAnnotations() ) );
-        dataModel.setMethodInformation( filterMethodInformation( usedFullyQualifiedClassNames,
-                                                                 oracle.getProjectMethodInformation() ) );
-        dataModel.setCollectionTypes( filterCollectionTypes( usedFullyQualifiedClassNames,
-                                                             oracle.getProjectCollectionTypes() ) );
+        dataModel.setEventTypes( lookup( usedFullyQualifiedClassName,
+                                         oracle.getProjectEventTypes() ) );
+        dataModel.setTypeSources( lookup( usedFullyQualifiedClassName,
+                                          oracle.getProjectTypeSources() ) );
+        dataModel.setSuperTypes( lookup( usedFullyQualifiedClassName,
+                                         oracle.getProjectSuperTypes() ) );
+        dataModel.setTypeAnnotations( lookup( usedFullyQualifiedClassName,
+                                              oracle.getProjectTypeAnnotations() ) );
+        dataModel.setTypeFieldsAnnotations( lookup( usedFullyQualifiedClassName,
+                                                    oracle.getProjectTypeFieldsAnnotations() ) );
+        dataModel.setMethodInformation( lookup( usedFullyQualifiedClassName,
+                                                oracle.getProjectMethodInformation() ) );
+        dataModel.setCollectionTypes( lookup( usedFullyQualifiedClassName,
+                                              oracle.getProjectCollectionTypes() ) );
+    }
+
+    private static <T> Map<String, T> lookup( final String fullyQualifiedClassName,
+                                              final Map<String, T> projectContent ) {
+        final Map<String, T> scopedContent = new HashMap<String, T>();
+        final T value = projectContent.get( fullyQualifiedClassName );
+        if ( value != null ) {
+            scopedContent.put( fullyQualifiedClassName,
+                               value );
+        }
+        return scopedContent;
+    }
+
+    //Field Parameter Types are keyed by the type and the name of the field, or the name and parameters of the method
+    private static Map<String, String> lookupFieldParametersTypes( final String fullyQualifiedClassName,
+                                                                   final ModelField[] modelFields,
+                                                                   final List<MethodInfo> methodInformation,
+                                                                   final Map<String, String> projectFieldParametersTypes ) {
+        final Map<String, String> scopedFieldParametersType = new HashMap<String, String>();
+        if ( modelFields != null ) {
+            for ( ModelField modelField : modelFields ) {
+                lookupFieldParametersType( fullyQualifiedClassName + "#" + modelField.getName(),
+                                           projectFieldParametersTypes,
+                                           scopedFieldParametersType );
+            }
+        }
+        if ( methodInformation != null ) {
+            for ( MethodInfo mi : methodInformation ) {
+                lookupFieldParametersType( fullyQualifiedClassName + "#" + mi.getNameWithParameters(),
+                                           projectFieldParametersTypes,
+                                           scopedFieldParametersType );
+            }
+        }
+        return scopedFieldParametersType;
+    }
+
+    private static void lookupFieldParametersType( final String qualifiedFactFieldName,
+                                                   final Map<String, String> projectFieldParametersTypes,
+                                                   final Map<String, String> scopedFieldParametersType ) {
+        final String fieldType = projectFieldParametersTypes.get( qualifiedFactFieldName );
+        if ( fieldType != null ) {
+            scopedFieldParametersType.put( qualifiedFactFieldName,
+                                           fieldType );
+        }
     }
 
     //Setup Model Fields for lazy loading client-side
@@ -307,22 +361,6 @@ public class DataModelOracleUtilities {
         return null;
     }
 
-    //Filter Model Fields by the types used
-    private static Map<String, ModelField[]> filterModelFields( final Set<String> usedFullyQualifiedClassNames,
-                                                                final Map<String, ModelField[]> projectModelFields ) {
-        final Map<String, ModelField[]> scopedModelFields = new HashMap<String, ModelField[]>();
-        for ( Map.Entry<String, ModelField[]> e : projectModelFields.entrySet() ) {
-            final String mfQualifiedType = e.getKey();
-            final ModelField[] mfModelFields = e.getValue();
-            if ( isTypeUsed( mfQualifiedType,
-                             usedFullyQualifiedClassNames ) ) {
-                scopedModelFields.put( mfQualifiedType,
-                                       mfModelFields );
-            }
-        }
-        return scopedModelFields;
-    }
-
     //Filter Collection Types by the types used
     private static Map<String, Boolean> filterCollectionTypes( final Set<String> usedFullyQualifiedClassNames,
                                                                final Map<String, Boolean> projectCollectionTypes ) {
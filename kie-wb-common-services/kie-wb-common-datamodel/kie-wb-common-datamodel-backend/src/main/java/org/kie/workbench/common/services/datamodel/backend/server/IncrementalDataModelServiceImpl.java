@@ -15,6 +15,8 @@
  */
 package org.kie.workbench.common.services.datamodel.backend.server;
 
+import java.util.HashMap;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -25,6 +27,7 @@ import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.project.model.Package;
 import org.jboss.errai.bus.server.annotations.Service;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.LazyPackageDataModelOracle;
 import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUDataModelOracleCache;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
 import org.kie.workbench.common.services.datamodel.service.IncrementalDataModelService;
@@ -108,9 +111,19 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
                 return dataModel;
             }
 
+            //Use content already prepared for the FactType. Content is keyed by the resolved name, as the same
+            //simple name can refer to different types depending upon the resource's imports.
+            final Map<String, PackageDataModelOracleIncrementalPayload> payloads = getIncrementalPayloads( oracle );
+            final PackageDataModelOracleIncrementalPayload payload = payloads.get( fullyQualifiedClassName );
+            if ( payload != null ) {
+                return payload;
+            }
+
             DataModelOracleUtilities.populateDataModel( oracle,
                                                         dataModel,
                                                         fullyQualifiedClassName );
+            payloads.put( fullyQualifiedClassName,
+                          dataModel );
             return dataModel;
 
         } catch ( Exception e ) {
@@ -119,6 +132,14 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
 
     }
 
+    //Content is prepared once per type for each cached DataModelOracle, and discarded with it
+    private Map<String, PackageDataModelOracleIncrementalPayload> getIncrementalPayloads( final PackageDataModelOracle oracle ) {
+        if ( oracle instanceof LazyPackageDataModelOracle ) {
+            return ( (LazyPackageDataModelOracle) oracle ).getIncrementalPayloads();
+        }
+        return new HashMap<String, PackageDataModelOracleIncrementalPayload>();
+    }
+
     private KieProject resolveProject( final Path resourcePath ) {
         return projectService.resolveProject( resourcePath );
     }
@@ -0,0 +1,259 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.packages;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.drools.workbench.models.commons.backend.oracle.PackageDataModelOracleImpl;
+import org.drools.workbench.models.datamodel.oracle.Annotation;
+import org.drools.workbench.models.datamodel.oracle.MethodInfo;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.drools.workbench.models.datamodel.rule.DSLSentence;
+import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * A PackageDataModelOracle whose facets (the Project's DataModelOracle, workbench enumerations, DSL sentences and
+ * globals) are each loaded the first time they are accessed. Loading one facet does not load any other; for
+ * example reading DSL sentences neither builds the Project nor compiles its enumerations.
+ */
+public class LazyPackageDataModelOracle extends PackageDataModelOracleImpl {
+
+    /**
+     * Loads the facets of a PackageDataModelOracle
+     */
+    public interface Loader {
+
+        ProjectDataModelOracle loadProjectOracle();
+
+        void loadEnums( final PackageDataModelOracleBuilder builder );
+
+        void loadDsls( final PackageDataModelOracleBuilder builder );
+
+        void loadGlobals( final PackageDataModelOracleBuilder builder );
+
+    }
+
+    private final transient Loader loader;
+
+    private volatile boolean projectOracleLoaded;
+    private volatile boolean enumsLoaded;
+    private volatile boolean dslsLoaded;
+    private volatile boolean globalsLoaded;
+
+    //Each facet populates its own fields, so facets are loaded under separate locks and never wait for each other
+    private final transient Object projectOracleLock = new Object();
+    private final transient Object enumsLock = new Object();
+    private final transient Object dslsLock = new Object();
+    private final transient Object globalsLock = new Object();
+
+    //Incremental content for types of the Project, keyed by fully qualified class name
+    private final transient ConcurrentMap<String, PackageDataModelOracleIncrementalPayload> incrementalPayloads = new ConcurrentHashMap<String, PackageDataModelOracleIncrementalPayload>();
+
+    public LazyPackageDataModelOracle( final String packageName,
+                                       final Loader loader ) {
+        this.loader = checkNotNull( "loader",
+                                    loader );
+        setPackageName( packageName );
+    }
+
+    /**
+     * A PackageDataModelOracle for the same Package as another, following a change to the Project. Facets of the
+     * other that do not depend upon the Project (DSL sentences, globals and, if there are none, enumerations) are
+     * re-used; the Project's DataModelOracle, and enumerations that may use the Project's classes, are re-loaded.
+     * @param previous The PackageDataModelOracle prior to the change
+     */
+    public LazyPackageDataModelOracle( final LazyPackageDataModelOracle previous ) {
+        this( previous.getPackageName(),
+              previous.loader );
+        if ( previous.dslsLoaded ) {
+            addPackageDslConditionSentences( previous.getPackageDslConditionSentences() );
+            addPackageDslActionSentences( previous.getPackageDslActionSentences() );
+            dslsLoaded = true;
+        }
+        if ( previous.globalsLoaded ) {
+            addPackageGlobals( previous.getPackageGlobals() );
+            globalsLoaded = true;
+        }
+        if ( previous.enumsLoaded && previous.getPackageWorkbenchDefinitions().isEmpty() ) {
+            enumsLoaded = true;
+        }
+    }
+
+    @Override
+    public Map<String, ModelField[]> getProjectModelFields() {
+        assertProjectOracle();
+        return super.getProjectModelFields();
+    }
+
+    @Override
+    public Map<String, String> getProjectFieldParametersType() {
+        assertProjectOracle();
+        return super.getProjectFieldParametersType();
+    }
+
+    @Override
+    public Map<String, String[]> getProjectJavaEnumDefinitions() {
+        assertProjectOracle();
+        return super.getProjectJavaEnumDefinitions();
+    }
+
+    @Override
+    public Map<String, List<MethodInfo>> getProjectMethodInformation() {
+        assertProjectOracle();
+        return super.getProjectMethodInformation();
+    }
+
+    @Override
+    public Map<String, Boolean> getProjectCollectionTypes() {
+        assertProjectOracle();
+        return super.getProjectCollectionTypes();
+    }
+
+    @Override
+    public Map<String, Boolean> getProjectEventTypes() {
+        assertProjectOracle();
+        return super.getProjectEventTypes();
+    }
+
+    @Override
+    public Map<String, TypeSource> getProjectTypeSources() {
+        assertProjectOracle();
+        return super.getProjectTypeSources();
+    }
+
+    @Override
+    public Map<String, List<String>> getProjectSuperTypes() {
+        assertProjectOracle();
+        return super.getProjectSuperTypes();
+    }
+
+    @Override
+    public Map<String, Set<Annotation>> getProjectTypeAnnotations() {
+        assertProjectOracle();
+        return super.getProjectTypeAnnotations();
+    }
+
+    @Override
+    public Map<String, Map<String, Set<Annotation>>> getProjectTypeFieldsAnnotations() {
+        assertProjectOracle();
+        return super.getProjectTypeFieldsAnnotations();
+    }
+
+    @Override
+    public List<String> getProjectPackageNames() {
+        assertProjectOracle();
+        return super.getProjectPackageNames();
+    }
+
+    @Override
+    public Map<String, String[]> getPackageWorkbenchDefinitions() {
+        assertEnums();
+        return super.getPackageWorkbenchDefinitions();
+    }
+
+    @Override
+    public List<DSLSentence> getPackageDslConditionSentences() {
+        assertDsls();
+        return super.getPackageDslConditionSentences();
+    }
+
+    @Override
+    public List<DSLSentence> getPackageDslActionSentences() {
+        assertDsls();
+        return super.getPackageDslActionSentences();
+    }
+
+    @Override
+    public Map<String, String> getPackageGlobals() {
+        assertGlobals();
+        return super.getPackageGlobals();
+    }
+
+    /**
+     * Incremental content already prepared for types of the Project, keyed by fully qualified class name. The content
+     * is discarded with this PackageDataModelOracle, including when the Project changes.
+     * @return Prepared content. Payloads must not be modified once added.
+     */
+    public ConcurrentMap<String, PackageDataModelOracleIncrementalPayload> getIncrementalPayloads() {
+        return incrementalPayloads;
+    }
+
+    private void assertProjectOracle() {
+        if ( projectOracleLoaded ) {
+            return;
+        }
+        synchronized ( projectOracleLock ) {
+            if ( projectOracleLoaded ) {
+                return;
+            }
+            final ProjectDataModelOracle pd = loader.loadProjectOracle();
+            addProjectModelFields( pd.getProjectModelFields() );
+            addProjectFieldParametersType( pd.getProjectFieldParametersType() );
+            addProjectJavaEnumDefinitions( pd.getProjectJavaEnumDefinitions() );
+            addProjectMethodInformation( pd.getProjectMethodInformation() );
+            addProjectCollectionTypes( pd.getProjectCollectionTypes() );
+            addProjectEventTypes( pd.getProjectEventTypes() );
+            addProjectTypeSources( pd.getProjectTypeSources() );
+            addProjectSuperTypes( pd.getProjectSuperTypes() );
+            addProjectTypeAnnotations( pd.getProjectTypeAnnotations() );
+            addProjectTypeFieldsAnnotations( pd.getProjectTypeFieldsAnnotations() );
+            addProjectPackageNames( pd.getProjectPackageNames() );
+            projectOracleLoaded = true;
+        }
+    }
+
+    private void assertEnums() {
+        if ( enumsLoaded ) {
+            return;
+        }
+        synchronized ( enumsLock ) {
+            if ( enumsLoaded ) {
+                return;
+            }
+            final PackageDataModelOracleBuilder builder = PackageDataModelOracleBuilder.newPackageOracleBuilder( getPackageName() );
+            loader.loadEnums( builder );
+            addPackageWorkbenchEnumDefinitions( builder.build().getPackageWorkbenchDefinitions() );
+            enumsLoaded = true;
+        }
+    }
+
+    private void assertDsls() {
+        if ( dslsLoaded ) {
+            return;
+        }
+        synchronized ( dslsLock ) {
+            if ( dslsLoaded ) {
+                return;
+            }
+            final PackageDataModelOracleBuilder builder = PackageDataModelOracleBuilder.newPackageOracleBuilder( getPackageName() );
+            loader.loadDsls( builder );
+            final PackageDataModelOracle dsls = builder.build();
+            addPackageDslConditionSentences( dsls.getPackageDslConditionSentences() );
+            addPackageDslActionSentences( dsls.getPackageDslActionSentences() );
+            dslsLoaded = true;
+        }
+    }
+
+    private void assertGlobals() {
+        if ( globalsLoaded ) {
+            return;
+        }
+        synchronized ( globalsLock ) {
+            if ( globalsLoaded ) {
+                return;
+            }
+            final PackageDataModelOracleBuilder builder = PackageDataModelOracleBuilder.newPackageOracleBuilder( getPackageName() );
+            loader.loadGlobals( builder );
+            addPackageGlobals( builder.build().getPackageGlobals() );
+            globalsLoaded = true;
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+
+/**
+ * Builder for a ProjectDataModelOracle derived from an existing one, where only some types have changed. The
+ * existing ProjectDataModelOracle is not modified; its content is copied, the changed types removed and the
+ * content of a ProjectDataModelOracle containing only the changed types merged in.
+ */
+public final class IncrementalProjectDataModelOracleBuilder {
+
+    private final ProjectDataModelOracle existingOracle;
+    private final Set<String> removedTypes = new HashSet<String>();
+    private final List<ProjectDataModelOracle> changedOracles = new ArrayList<ProjectDataModelOracle>();
+    private final List<String> packageNames = new ArrayList<String>();
+
+    public static IncrementalProjectDataModelOracleBuilder newIncrementalOracleBuilder( final ProjectDataModelOracle existingOracle ) {
+        return new IncrementalProjectDataModelOracleBuilder( existingOracle );
+    }
+
+    private IncrementalProjectDataModelOracleBuilder( final ProjectDataModelOracle existingOracle ) {
+        this.existingOracle = existingOracle;
+        this.packageNames.addAll( existingOracle.getProjectPackageNames() );
+    }
+
+    /**
+     * Types of the existing ProjectDataModelOracle that depend on any of the given types; i.e. that extend them
+     * or have fields of their type (and hence possibly enumerations of their values).
+     * @param types Fully qualified class names
+     * @return Fully qualified class names of the dependent types
+     */
+    public Set<String> getDependentTypes( final Set<String> types ) {
+        final Set<String> dependents = new HashSet<String>();
+        for ( Map.Entry<String, List<String>> e : existingOracle.getProjectSuperTypes().entrySet() ) {
+            if ( e.getValue() == null ) {
+                continue;
+            }
+            for ( String superType : e.getValue() ) {
+                if ( types.contains( superType ) ) {
+                    dependents.add( e.getKey() );
+                    break;
+                }
+            }
+        }
+        for ( Map.Entry<String, ModelField[]> e : existingOracle.getProjectModelFields().entrySet() ) {
+            for ( ModelField mf : e.getValue() ) {
+                if ( types.contains( mf.getClassName() ) && !types.contains( e.getKey() ) ) {
+                    dependents.add( e.getKey() );
+                    break;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    public IncrementalProjectDataModelOracleBuilder removeTypes( final Collection<String> types ) {
+        removedTypes.addAll( types );
+        return this;
+    }
+
+    public IncrementalProjectDataModelOracleBuilder addChanges( final ProjectDataModelOracle changedOracle ) {
+        changedOracles.add( changedOracle );
+        return this;
+    }
+
+    public IncrementalProjectDataModelOracleBuilder setPackages( final Collection<String> packageNames ) {
+        this.packageNames.clear();
+        this.packageNames.addAll( packageNames );
+        return this;
+    }
+
+    public ProjectDataModelOracle build() {
+        final ProjectDataModelOracleImpl oracle = new IndexedProjectDataModelOracle();
+        oracle.addProjectModelFields( retainTypes( existingOracle.getProjectModelFields() ) );
+        oracle.addProjectCollectionTypes( retainTypes( existingOracle.getProjectCollectionTypes() ) );
+        oracle.addProjectEventTypes( retainTypes( existingOracle.getProjectEventTypes() ) );
+        oracle.addProjectTypeSources( retainTypes( existingOracle.getProjectTypeSources() ) );
+        oracle.addProjectSuperTypes( retainTypes( existingOracle.getProjectSuperTypes() ) );
+        oracle.addProjectTypeAnnotations( retainTypes( existingOracle.getProjectTypeAnnotations() ) );
+        oracle.addProjectTypeFieldsAnnotations( retainTypes( existingOracle.getProjectTypeFieldsAnnotations() ) );
+        oracle.addProjectMethodInformation( retainTypes( existingOracle.getProjectMethodInformation() ) );
+        oracle.addProjectFieldParametersType( retainQualifiedTypes( existingOracle.getProjectFieldParametersType() ) );
+        oracle.addProjectJavaEnumDefinitions( retainQualifiedTypes( existingOracle.getProjectJavaEnumDefinitions() ) );
+        oracle.addProjectPackageNames( packageNames );
+
+        for ( ProjectDataModelOracle changedOracle : changedOracles ) {
+            oracle.addProjectModelFields( changedOracle.getProjectModelFields() );
+            oracle.addProjectCollectionTypes( changedOracle.getProjectCollectionTypes() );
+            oracle.addProjectEventTypes( changedOracle.getProjectEventTypes() );
+            oracle.addProjectTypeSources( changedOracle.getProjectTypeSources() );
+            oracle.addProjectSuperTypes( changedOracle.getProjectSuperTypes() );
+            oracle.addProjectTypeAnnotations( changedOracle.getProjectTypeAnnotations() );
+            oracle.addProjectTypeFieldsAnnotations( changedOracle.getProjectTypeFieldsAnnotations() );
+            oracle.addProjectMethodInformation( changedOracle.getProjectMethodInformation() );
+            oracle.addProjectFieldParametersType( changedOracle.getProjectFieldParametersType() );
+            oracle.addProjectJavaEnumDefinitions( changedOracle.getProjectJavaEnumDefinitions() );
+        }
+
+        return oracle;
+    }
+
+    //Entries keyed by type
+    private <T> Map<String, T> retainTypes( final Map<String, T> entries ) {
+        final Map<String, T> retained = new HashMap<String, T>();
+        for ( Map.Entry<String, T> e : entries.entrySet() ) {
+            if ( !removedTypes.contains( e.getKey() ) ) {
+                retained.put( e.getKey(),
+                              e.getValue() );
+            }
+        }
+        return retained;
+    }
+
+    //Entries keyed by type#member
+    private <T> Map<String, T> retainQualifiedTypes( final Map<String, T> entries ) {
+        final Map<String, T> retained = new HashMap<String, T>();
+        for ( Map.Entry<String, T> e : entries.entrySet() ) {
+            final String key = e.getKey();
+            final int index = key.indexOf( '#' );
+            final String type = index < 0 ? key : key.substring( 0,
+                                                                 index );
+            if ( !removedTypes.contains( type ) ) {
+                retained.put( key,
+                              e.getValue() );
+            }
+        }
+        return retained;
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+
+/**
+ * A ProjectDataModelOracle with indexes of its model fields, supporting constant-time lookup of the fact name for
+ * a class name and of a field on a fact. Indexes are built lazily, when first used, and discarded when model fields
+ * are added. They are not serialized.
+ */
+public class IndexedProjectDataModelOracle extends ProjectDataModelOracleImpl {
+
+    //Class name -> fact name
+    private transient volatile Map<String, String> factNames;
+
+    //Fact name -> field name -> field
+    private transient volatile Map<String, Map<String, ModelField>> fields;
+
+    @Override
+    public void addProjectModelFields( final Map<String, ModelField[]> modelFields ) {
+        super.addProjectModelFields( modelFields );
+        factNames = null;
+        fields = null;
+    }
+
+    /**
+     * The name of the fact for a class
+     * @param fullyQualifiedClassName The FQCN of the class
+     * @return The fact name, or null if the class is not a fact
+     */
+    public String getFactNameFromType( final String fullyQualifiedClassName ) {
+        if ( fullyQualifiedClassName == null ) {
+            return null;
+        }
+        if ( getProjectModelFields().containsKey( fullyQualifiedClassName ) ) {
+            return fullyQualifiedClassName;
+        }
+        return getFactNames().get( fullyQualifiedClassName );
+    }
+
+    /**
+     * A field on a fact
+     * @param factName The name of the fact
+     * @param fieldName The name of the field
+     * @return The field, or null if the fact or field does not exist
+     */
+    public ModelField getField( final String factName,
+                                final String fieldName ) {
+        Map<String, Map<String, ModelField>> fields = this.fields;
+        if ( fields == null ) {
+            fields = new ConcurrentHashMap<String, Map<String, ModelField>>();
+            this.fields = fields;
+        }
+        Map<String, ModelField> factFields = fields.get( factName );
+        if ( factFields == null ) {
+            final ModelField[] modelFields = getProjectModelFields().get( factName );
+            if ( modelFields == null ) {
+                return null;
+            }
+            factFields = new HashMap<String, ModelField>();
+            for ( ModelField modelField : modelFields ) {
+                //The first field of a given name takes precedence
+                if ( !factFields.containsKey( modelField.getName() ) ) {
+                    factFields.put( modelField.getName(),
+                                    modelField );
+                }
+            }
+            fields.put( factName,
+                        factFields );
+        }
+        return factFields.get( fieldName );
+    }
+
+    private Map<String, String> getFactNames() {
+        Map<String, String> factNames = this.factNames;
+        if ( factNames == null ) {
+            factNames = new HashMap<String, String>();
+            for ( Map.Entry<String, ModelField[]> entry : getProjectModelFields().entrySet() ) {
+                for ( ModelField mf : entry.getValue() ) {
+                    if ( DataType.TYPE_THIS.equals( mf.getName() ) && !factNames.containsKey( mf.getClassName() ) ) {
+                        factNames.put( mf.getClassName(),
+                                       entry.getKey() );
+                    }
+                }
+            }
+            factNames = Collections.unmodifiableMap( factNames );
+            this.factNames = factNames;
+        }
+        return factNames;
+    }
+
+}
@@ -3,9 +3,11 @@ package org.kie.workbench.common.services.datamodel.backend.server.builder.proje
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
@@ -13,17 +15,19 @@ import org.drools.workbench.models.datamodel.oracle.TypeSource;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.util.DataEnumLoader;
 
 /**
- * Builder for DataModelOracle
+ * Builder for DataModelOracle. Classes and enumerations can be added concurrently, provided each thread uses its
+ * own map of discovered field FactBuilders.
  */
 public final class ProjectDataModelOracleBuilder {
 
-    private ProjectDataModelOracleImpl oracle = new ProjectDataModelOracleImpl();
+    private ProjectDataModelOracleImpl oracle = new IndexedProjectDataModelOracle();
 
-    private Map<String, FactBuilder> factTypeBuilders = new HashMap<String, FactBuilder>();
-    private Map<String, String[]> factFieldEnums = new HashMap<String, String[]>();
+    private Map<String, FactBuilder> factTypeBuilders = new ConcurrentHashMap<String, FactBuilder>();
+    private Map<String, String[]> factFieldEnums = new ConcurrentHashMap<String, String[]>();
     private List<String> packageNames = new ArrayList<String>();
+    private List<ProjectDataModelOracle> oracles = Collections.synchronizedList( new ArrayList<ProjectDataModelOracle>() );
 
-    private List<String> errors = new ArrayList<String>();
+    private List<String> errors = Collections.synchronizedList( new ArrayList<String>() );
 
     public static ProjectDataModelOracleBuilder newProjectOracleBuilder() {
         return new ProjectDataModelOracleBuilder();
@@ -89,6 +93,15 @@ public final class ProjectDataModelOracleBuilder {
         return this;
     }
 
+    /**
+     * Add the content of a ProjectDataModelOracle, such as facts shared between Projects. The content is
+     * referenced, not copied; and is superseded by classes and enumerations added directly for the same types.
+     */
+    public ProjectDataModelOracleBuilder addOracle( final ProjectDataModelOracle oracle ) {
+        oracles.add( oracle );
+        return this;
+    }
+
     public ProjectDataModelOracleBuilder addEnum( final String factType,
                                                   final String fieldName,
                                                   final String[] values ) {
@@ -121,6 +134,7 @@ public final class ProjectDataModelOracleBuilder {
     }
 
     public ProjectDataModelOracle build() {
+        loadOracles();
         loadFactTypes();
         loadEnums();
         loadPackageNames();
@@ -132,6 +146,21 @@ public final class ProjectDataModelOracleBuilder {
         oracle.addProjectPackageNames( packageNames );
     }
 
+    private void loadOracles() {
+        for ( final ProjectDataModelOracle o : oracles ) {
+            oracle.addProjectModelFields( o.getProjectModelFields() );
+            oracle.addProjectCollectionTypes( o.getProjectCollectionTypes() );
+            oracle.addProjectEventTypes( o.getProjectEventTypes() );
+            oracle.addProjectTypeSources( o.getProjectTypeSources() );
+            oracle.addProjectSuperTypes( o.getProjectSuperTypes() );
+            oracle.addProjectTypeAnnotations( o.getProjectTypeAnnotations() );
+            oracle.addProjectTypeFieldsAnnotations( o.getProjectTypeFieldsAnnotations() );
+            oracle.addProjectMethodInformation( o.getProjectMethodInformation() );
+            oracle.addProjectFieldParametersType( o.getProjectFieldParametersType() );
+            oracle.addProjectJavaEnumDefinitions( o.getProjectJavaEnumDefinitions() );
+        }
+    }
+
     private void loadFactTypes() {
 
         for ( final FactBuilder factBuilder : new ArrayList<FactBuilder>( this.factTypeBuilders.values() ) ) {
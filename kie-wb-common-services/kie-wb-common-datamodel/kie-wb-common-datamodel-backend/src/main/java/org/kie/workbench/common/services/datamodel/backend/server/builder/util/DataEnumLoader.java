@@ -16,7 +16,6 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.builder.util;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,9 +26,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.drools.core.util.MVELSafeHelper;
-import org.mvel2.MVEL;
-import org.mvel2.ParserConfiguration;
-import org.mvel2.ParserContext;
+import org.kie.workbench.common.services.backend.enums.EnumExpressionCache;
 
 /**
  * Use MVEL to load up map/list of valid items for fields - used by the Guided rule editor.
@@ -63,7 +60,10 @@ public class DataEnumLoader {
         if ( mvelSource == null || ( mvelSource.trim().equals( "" ) ) ) {
             return Collections.emptyMap();
         }
-        if ( mvelSource.startsWith( "=" ) ) {
+        //Expressions ("=...") can call helper classes so are re-evaluated, as are maps whose values call them.
+        //Only the value of a map consisting solely of literals is cached.
+        final boolean isExpression = mvelSource.startsWith( "=" );
+        if ( isExpression ) {
             mvelSource = mvelSource.substring( 1 );
         } else {
             mvelSource = "[ " + addCommasForNewLines( mvelSource ) + " ]";
@@ -72,15 +72,14 @@ public class DataEnumLoader {
 
         try {
 
-            final ParserConfiguration pconf = new ParserConfiguration();
-            final ParserContext pctx = new ParserContext( pconf );
-            pconf.setClassLoader( classLoader );
-
-            final Serializable compiled = MVEL.compileExpression( mvelSource,
-                                                                  pctx );
-
-            mvelData = MVELSafeHelper.getEvaluator().executeExpression( compiled,
-                                                                        new HashMap<String, Object>() );
+            if ( isExpression || !isLiteral( mvelSource ) ) {
+                mvelData = MVELSafeHelper.getEvaluator().executeExpression( EnumExpressionCache.getInstance().compile( mvelSource,
+                                                                                                                       classLoader ),
+                                                                            new HashMap<String, Object>() );
+            } else {
+                mvelData = EnumExpressionCache.getInstance().evaluateStatic( mvelSource,
+                                                                             classLoader );
+            }
 
         } catch ( RuntimeException e ) {
             addError( "Unable to load enumeration data." );
@@ -127,6 +126,26 @@ public class DataEnumLoader {
         return newMap;
     }
 
+    //Whether the source consists solely of quoted strings, numbers, lists and maps; i.e. it references no classes
+    static boolean isLiteral( final String mvelSource ) {
+        char quote = 0;
+        for ( int i = 0; i < mvelSource.length(); i++ ) {
+            final char c = mvelSource.charAt( i );
+            if ( quote != 0 ) {
+                if ( c == '\\' ) {
+                    i++;
+                } else if ( c == quote ) {
+                    quote = 0;
+                }
+            } else if ( c == '\'' || c == '"' ) {
+                quote = c;
+            } else if ( !( Character.isWhitespace( c ) || Character.isDigit( c ) || "[]:,.-".indexOf( c ) >= 0 ) ) {
+                return false;
+            }
+        }
+        return quote == 0;
+    }
+
     private void validateKey( final String key ) {
         final Pattern pattern = Pattern.compile( ".*(\\[.*\\])" );
         final Matcher matcher = pattern.matcher( key );
@@ -0,0 +1,107 @@
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.backend.builder.ExternalClassVerifier;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+
+/**
+ * An application-wide cache of the facts of classes from external dependencies (model fields, methods,
+ * annotations, super types and generic parameter types), shared between ProjectDataModelOracles. The types of a
+ * class's facts are resolved through its class loader, so entries are keyed by the artifact from which the class was
+ * loaded and the dependencies available to its class loader (as verified by ExternalClassVerifier). They are shared
+ * by all Projects with the same dependencies; classes not loaded from a jar are never cached. The cache holds a
+ * bounded number of classes, evicting the least recently used.
+ */
+@ApplicationScoped
+public class DependencyFactCache {
+
+    public static final String MAX_ENTRIES_PROPERTY = "org.kie.workbench.datamodel.dependency-facts.max-entries";
+
+    private final int maxEntries = Integer.getInteger( MAX_ENTRIES_PROPERTY,
+                                                       5000 );
+
+    private final Map<String, ProjectDataModelOracle> facts = new LinkedHashMap<String, ProjectDataModelOracle>( 16,
+                                                                                                                0.75f,
+                                                                                                                true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, ProjectDataModelOracle> eldest ) {
+            return size() > maxEntries;
+        }
+    };
+
+    private ExternalClassVerifier verifier;
+
+    public DependencyFactCache() {
+        //CDI proxy
+    }
+
+    @Inject
+    public DependencyFactCache( final ExternalClassVerifier verifier ) {
+        this.verifier = verifier;
+    }
+
+    /**
+     * Facts for a class from an external dependency. The ProjectDataModelOracle returned is shared and must
+     * not be modified.
+     * @param clazz The class
+     * @param isEvent Whether the class is an event in the Project
+     * @return Facts for the class and the types of its fields
+     * @throws IOException
+     */
+    public ProjectDataModelOracle getFacts( final Class<?> clazz,
+                                            final boolean isEvent ) throws IOException {
+        final String verificationKey = verifier.getVerificationKey( clazz );
+        if ( verificationKey == null ) {
+            return makeFacts( clazz,
+                              isEvent );
+        }
+        final String key = verificationKey + "#" + clazz.getName() + "#" + isEvent;
+        synchronized ( facts ) {
+            final ProjectDataModelOracle cached = facts.get( key );
+            if ( cached != null ) {
+                return cached;
+            }
+        }
+
+        //Classes are inspected outside of the lock; concurrent requests for the same class produce equal facts
+        final ProjectDataModelOracle classFacts = makeFacts( clazz,
+                                                             isEvent );
+        synchronized ( facts ) {
+            facts.put( key,
+                       classFacts );
+        }
+        return classFacts;
+    }
+
+    public int size() {
+        synchronized ( facts ) {
+            return facts.size();
+        }
+    }
+
+    public void clear() {
+        synchronized ( facts ) {
+            facts.clear();
+        }
+    }
+
+    private ProjectDataModelOracle makeFacts( final Class<?> clazz,
+                                              final boolean isEvent ) throws IOException {
+        return ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( clazz,
+                           new HashMap<String, FactBuilder>(),
+                           isEvent,
+                           TypeSource.JAVA_DEPENDENCY )
+                .build();
+    }
+
+}
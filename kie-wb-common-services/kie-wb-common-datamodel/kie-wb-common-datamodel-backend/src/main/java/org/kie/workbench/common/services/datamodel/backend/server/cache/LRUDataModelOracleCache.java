@@ -1,8 +1,11 @@
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -16,12 +19,11 @@ import org.guvnor.common.services.project.builder.events.InvalidateDMOPackageCac
 import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.guvnor.common.services.project.model.Package;
-import org.kie.api.builder.KieModule;
-import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
 import org.kie.workbench.common.services.backend.file.DSLFileFilter;
 import org.kie.workbench.common.services.backend.file.EnumerationsFileFilter;
 import org.kie.workbench.common.services.backend.file.GlobalsFileFilter;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.LazyPackageDataModelOracle;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
@@ -61,6 +63,9 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
     @Inject
     private LRUBuilderCache builderCache;
 
+    //Project root URI -> Packages with cached DataModelOracles. Packages may since have been evicted from the cache.
+    private final Map<String, Set<Package>> projectPackages = new HashMap<String, Set<Package>>();
+
     public synchronized void invalidatePackageCache( @Observes final InvalidateDMOPackageCacheEvent event ) {
         PortablePreconditions.checkNotNull( "event",
                                             event );
@@ -73,6 +78,7 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         }
     }
 
+    //Project-level changes only affect facets of the DataModelOracles that depend upon the Project; the others are retained
     public synchronized void invalidateProjectPackagesCache( @Observes final InvalidateDMOProjectCacheEvent event ) {
         PortablePreconditions.checkNotNull( "event",
                                             event );
@@ -84,29 +90,29 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
             return;
         }
 
-        final String projectUri = project.getRootPath().toURI();
-        final List<Package> cacheEntriesToInvalidate = new ArrayList<Package>();
-        for ( final Package pkg : getKeys() ) {
-            final Path packageMainSrcPath = pkg.getPackageMainSrcPath();
-            final Path packageTestSrcPath = pkg.getPackageTestSrcPath();
-            final Path packageMainResourcesPath = pkg.getPackageMainResourcesPath();
-            final Path packageTestResourcesPath = pkg.getPackageTestResourcesPath();
-            if ( packageMainSrcPath != null && packageMainSrcPath.toURI().startsWith( projectUri ) ) {
-                cacheEntriesToInvalidate.add( pkg );
-            } else if ( packageTestSrcPath != null && packageTestSrcPath.toURI().startsWith( projectUri ) ) {
-                cacheEntriesToInvalidate.add( pkg );
-            } else if ( packageMainResourcesPath != null && packageMainResourcesPath.toURI().startsWith( projectUri ) ) {
-                cacheEntriesToInvalidate.add( pkg );
-            } else if ( packageTestResourcesPath != null && packageTestResourcesPath.toURI().startsWith( projectUri ) ) {
-                cacheEntriesToInvalidate.add( pkg );
-            }
+        final Set<Package> packages = projectPackages.get( project.getRootPath().toURI() );
+        if ( packages == null ) {
+            return;
         }
-        for ( final Package pkg : cacheEntriesToInvalidate ) {
-            invalidateCache( pkg );
+        final Iterator<Package> itr = packages.iterator();
+        while ( itr.hasNext() ) {
+            final Package pkg = itr.next();
+            final PackageDataModelOracle oracle = getEntry( pkg );
+            if ( oracle == null ) {
+                //Evicted or invalidated since being indexed
+                itr.remove();
+            } else if ( oracle instanceof LazyPackageDataModelOracle ) {
+                setEntry( pkg,
+                          new LazyPackageDataModelOracle( (LazyPackageDataModelOracle) oracle ) );
+            } else {
+                invalidateCache( pkg );
+                itr.remove();
+            }
         }
     }
 
-    //Check the DataModelOracle for the Package has been created, otherwise create one!
+    //Check the DataModelOracle for the Package has been created, otherwise create one! Creating one is cheap; its
+    //facets are loaded outside of the cache's lock, at most once each, when first accessed.
     public synchronized PackageDataModelOracle assertPackageDataModelOracle( final KieProject project,
                                                                              final Package pkg ) {
         PackageDataModelOracle oracle = getEntry( pkg );
@@ -115,31 +121,58 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
                                                  pkg );
             setEntry( pkg,
                       oracle );
+            indexPackage( project,
+                          pkg );
         }
         return oracle;
     }
 
+    private void indexPackage( final KieProject project,
+                               final Package pkg ) {
+        final String projectUri = project.getRootPath().toURI();
+        Set<Package> packages = projectPackages.get( projectUri );
+        if ( packages == null ) {
+            packages = new HashSet<Package>();
+            projectPackages.put( projectUri,
+                                 packages );
+        }
+        packages.add( pkg );
+    }
+
+    //Each facet of the DataModelOracle is loaded when first accessed
     private PackageDataModelOracle makePackageDataModelOracle( final KieProject project,
                                                                final Package pkg ) {
-        final String packageName = pkg.getPackageName();
-        final PackageDataModelOracleBuilder dmoBuilder = PackageDataModelOracleBuilder.newPackageOracleBuilder( packageName );
-        final ProjectDataModelOracle projectOracle = cacheProjects.assertProjectDataModelOracle( project );
-        dmoBuilder.setProjectOracle( projectOracle );
-
-        //Add Guvnor enumerations
-        loadEnumsForPackage( dmoBuilder,
-                             project,
-                             pkg );
-
-        //Add DSLs
-        loadDslsForPackage( dmoBuilder,
-                            pkg );
-
-        //Add Globals
-        loadGlobalsForPackage( dmoBuilder,
-                               pkg );
-
-        return dmoBuilder.build();
+        return new LazyPackageDataModelOracle( pkg.getPackageName(),
+                                               new LazyPackageDataModelOracle.Loader() {
+
+                                                   @Override
+                                                   public ProjectDataModelOracle loadProjectOracle() {
+                                                       return cacheProjects.assertProjectDataModelOracle( project );
+                                                   }
+
+                                                   @Override
+                                                   public void loadEnums( final PackageDataModelOracleBuilder dmoBuilder ) {
+                                                       //Add Guvnor enumerations
+                                                       loadEnumsForPackage( dmoBuilder,
+                                                                            project,
+                                                                            pkg );
+                                                   }
+
+                                                   @Override
+                                                   public void loadDsls( final PackageDataModelOracleBuilder dmoBuilder ) {
+                                                       //Add DSLs
+                                                       loadDslsForPackage( dmoBuilder,
+                                                                           pkg );
+                                                   }
+
+                                                   @Override
+                                                   public void loadGlobals( final PackageDataModelOracleBuilder dmoBuilder ) {
+                                                       //Add Globals
+                                                       loadGlobalsForPackage( dmoBuilder,
+                                                                              pkg );
+                                                   }
+
+                                               } );
     }
 
     private BuildMessage makeMessage( final String msg ) {
@@ -152,11 +185,14 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
     private void loadEnumsForPackage( final PackageDataModelOracleBuilder dmoBuilder,
                                       final KieProject project,
                                       final Package pkg ) {
-        final KieModule module = builderCache.assertBuilder( project ).getKieModuleIgnoringErrors();
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData( module ).getClassLoader();
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert( pkg.getPackageMainResourcesPath() );
         final Collection<org.uberfire.java.nio.file.Path> enumFiles = fileDiscoveryService.discoverFiles( nioPackagePath,
                                                                                                           FILTER_ENUMERATIONS );
+        //The KieModule's ClassLoader may require a build, so is only obtained if there are enumerations to load
+        if ( enumFiles.isEmpty() ) {
+            return;
+        }
+        final ClassLoader classLoader = builderCache.assertBuilder( project ).getKieModuleMetaData().getClassLoader();
         for ( final org.uberfire.java.nio.file.Path path : enumFiles ) {
             final String enumDefinition = ioService.readAllString( path );
             dmoBuilder.addEnum( enumDefinition,
@@ -1,11 +1,18 @@
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -19,12 +26,16 @@ import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
 import org.drools.workbench.models.datamodel.oracle.TypeSource;
 import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.guvnor.common.services.project.events.DeleteProjectEvent;
 import org.guvnor.common.services.project.model.ProjectImports;
 import org.guvnor.common.services.project.service.POMService;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.Builder;
+import org.kie.workbench.common.services.backend.builder.DaemonThreadFactory;
 import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
+import org.kie.workbench.common.services.backend.cache.InFlightComputations;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.IncrementalProjectDataModelOracleBuilder;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
@@ -44,8 +55,21 @@ import org.uberfire.java.nio.file.Files;
 @Named("ProjectDataModelOracleCache")
 public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, ProjectDataModelOracle> {
 
+    public static final String INCREMENTAL_PROPERTY = "org.kie.workbench.datamodel.project-oracle.incremental";
+
+    public static final String THREADS_PROPERTY = "org.kie.workbench.datamodel.project-oracle.threads";
+
     private static final Logger log = LoggerFactory.getLogger( LRUProjectDataModelOracleCache.class );
 
+    private static final int THREADS = Integer.getInteger( THREADS_PROPERTY,
+                                                           Runtime.getRuntime().availableProcessors() );
+
+    private static final ExecutorService INSPECTOR = Executors.newFixedThreadPool( THREADS,
+                                                                                   new DaemonThreadFactory( "project-oracle-class-inspector" ) );
+
+    //Fewer classes than this are not worth inspecting in parallel
+    private static final int MIN_BATCH_SIZE = 16;
+
     private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
 
     @Inject
@@ -64,6 +88,35 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
     @Inject
     private LRUBuilderCache cache;
 
+    @Inject
+    private DependencyFactCache dependencyFactCache;
+
+    private final boolean incremental = Boolean.parseBoolean( System.getProperty( INCREMENTAL_PROPERTY,
+                                                                                 "true" ) );
+
+    //Persisted ProjectOracles, used in preference to re-building them following a restart
+    private final ProjectDataModelOracleSnapshotStore snapshots = new ProjectDataModelOracleSnapshotStore();
+
+    //The Builder, and position in its log of type changes, from which each cached ProjectOracle was created. Recorded
+    //once the ProjectOracle has been created, so it is only used for the ProjectOracle with which it is recorded.
+    private final Map<KieProject, OracleVersion> versions = new ConcurrentHashMap<KieProject, OracleVersion>();
+
+    //At most one ProjectOracle is created, or updated, at a time for each Project
+    private final InFlightComputations<KieProject, ProjectDataModelOracle> computations = new InFlightComputations<KieProject, ProjectDataModelOracle>( this ) {
+        @Override
+        protected ProjectDataModelOracle compute( final KieProject project ) {
+            return computeProjectOracle( project );
+        }
+
+        @Override
+        protected void publish( final KieProject project,
+                                final ProjectDataModelOracle projectOracle ) {
+            setEntry( project,
+                      projectOracle );
+            versions.keySet().retainAll( getKeys() );
+        }
+    };
+
     public synchronized void invalidateProjectCache( @Observes final InvalidateDMOProjectCacheEvent event ) {
         PortablePreconditions.checkNotNull( "event",
                                             event );
@@ -72,27 +125,204 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
 
         //If resource was not within a Project there's nothing to invalidate
         if ( project != null ) {
+            //Changes to Java classes are picked up from the Builder when updating incrementally. The ProjectOracle is
+            //marked as dirty so that it is not served before changes yet to be applied to the Builder have been.
+            if ( incremental && resourcePath != null && resourcePath.getFileName().endsWith( ".java" ) ) {
+                final OracleVersion version = versions.get( project );
+                if ( version != null ) {
+                    version.dirty = true;
+                }
+                return;
+            }
             invalidateCache( project );
+            computations.invalidate( project );
+            versions.remove( project );
+        }
+    }
+
+    //Snapshots of deleted Projects would otherwise never be read, or removed
+    public void onDeleteProject( @Observes final DeleteProjectEvent event ) {
+        PortablePreconditions.checkNotNull( "event",
+                                            event );
+        if ( event.getProject() != null ) {
+            snapshots.delete( event.getProject().getRootPath().toURI() );
+        }
+    }
+
+    //Check the ProjectOracle for the Project has been created, otherwise create one! ProjectOracles are created and
+    //updated without holding the cache's lock, so doing so does not delay requests for other Projects. When updating
+    //incrementally a cached ProjectOracle is returned without waiting for the Builder if it has recorded no changes,
+    //and has no changes pending that are yet to be applied.
+    public ProjectDataModelOracle assertProjectDataModelOracle( final KieProject project ) {
+        if ( !incremental ) {
+            synchronized ( this ) {
+                final ProjectDataModelOracle projectOracle = getEntry( project );
+                if ( projectOracle != null ) {
+                    return projectOracle;
+                }
+            }
+        } else {
+            final OracleVersion version = versions.get( project );
+            if ( version != null && !version.dirty && version.builder == cache.getCachedBuilder( project ) && version.builder.getTypeChangeCount() == version.typeChangeCount && !version.builder.hasPendingChanges() ) {
+                synchronized ( this ) {
+                    if ( getEntry( project ) == version.projectOracle ) {
+                        return version.projectOracle;
+                    }
+                }
+            }
         }
+        return computations.get( project );
     }
 
-    //Check the ProjectOracle for the Project has been created, otherwise create one!
-    public synchronized ProjectDataModelOracle assertProjectDataModelOracle( final KieProject project ) {
-        ProjectDataModelOracle projectOracle = getEntry( project );
+    private ProjectDataModelOracle computeProjectOracle( final KieProject project ) {
+        //Changes to Java classes not followed by an incremental build (e.g. pushed to the repository) are applied now,
+        //otherwise the ProjectOracle would reflect the Builder's stale content until the Builder is replaced
+        cache.assertBuilder( project ).applyPendingChanges();
+
+        final ProjectDataModelOracle projectOracle;
+        synchronized ( this ) {
+            projectOracle = getEntry( project );
+        }
         if ( projectOracle == null ) {
-            projectOracle = makeProjectOracle( project );
-            setEntry( project,
-                      projectOracle );
+            return makeProjectOracle( project );
         }
-        return projectOracle;
+        return updateProjectOracle( project,
+                                    projectOracle );
+    }
+
+    //Apply changes made to types by incremental builds since the ProjectOracle was created or last updated
+    private ProjectDataModelOracle updateProjectOracle( final KieProject project,
+                                                        final ProjectDataModelOracle projectOracle ) {
+        final Builder builder = cache.assertBuilder( project );
+        final OracleVersion version = versions.get( project );
+        final Set<String> changes = ( version == null || version.builder != builder || version.projectOracle != projectOracle ) ? null : builder.getTypeChangesSince( version.typeChangeCount );
+        if ( changes == null ) {
+            //The ProjectOracle was built from a different Builder or the changes are unknown
+            return makeProjectOracle( project );
+        }
+        if ( changes.isEmpty() ) {
+            //Changes pending in the Builder are recorded as type changes once applied, so none were outstanding
+            version.dirty = false;
+            return projectOracle;
+        }
+
+        final int typeChangeCount = builder.getTypeChangeCount();
+        final String contentDigest = snapshots.isEnabled() ? builder.getContentDigest() : null;
+        final KieModuleMetaData kieModuleMetaData = builder.getKieModuleMetaData();
+        final Set<String> packageNamesWhiteList = loadPackageNameWhiteList( project,
+                                                                            kieModuleMetaData.getPackages() );
+
+        //Changed types, new types and, if a resource other than a Java class changed, all declared types
+        final Set<String> changedTypes = new HashSet<String>();
+        for ( String change : changes ) {
+            if ( !Builder.ANY_DECLARED_TYPE.equals( change ) ) {
+                changedTypes.add( change );
+            }
+        }
+        if ( changes.contains( Builder.ANY_DECLARED_TYPE ) ) {
+            for ( Map.Entry<String, TypeSource> e : projectOracle.getProjectTypeSources().entrySet() ) {
+                if ( TypeSource.DECLARED == e.getValue() ) {
+                    changedTypes.add( e.getKey() );
+                }
+            }
+        }
+        final Map<String, String[]> availableClasses = new HashMap<String, String[]>();
+        for ( final String packageName : kieModuleMetaData.getPackages() ) {
+            if ( packageNamesWhiteList.contains( packageName ) ) {
+                for ( final String className : kieModuleMetaData.getClasses( packageName ) ) {
+                    final String fullyQualifiedClassName = packageName + "." + className;
+                    availableClasses.put( fullyQualifiedClassName,
+                                          new String[]{ packageName, className } );
+                    if ( !projectOracle.getProjectModelFields().containsKey( fullyQualifiedClassName ) ) {
+                        changedTypes.add( fullyQualifiedClassName );
+                    }
+                }
+            }
+        }
+
+        final IncrementalProjectDataModelOracleBuilder ipdBuilder = IncrementalProjectDataModelOracleBuilder.newIncrementalOracleBuilder( projectOracle );
+        final Set<String> affectedTypes = new HashSet<String>( changedTypes );
+        affectedTypes.addAll( ipdBuilder.getDependentTypes( changedTypes ) );
+
+        //Nested classes are affected by changes to the class in which they are declared
+        final Set<String> knownClasses = new HashSet<String>( availableClasses.keySet() );
+        knownClasses.addAll( projectOracle.getProjectModelFields().keySet() );
+        for ( String fullyQualifiedClassName : knownClasses ) {
+            final int index = fullyQualifiedClassName.indexOf( '$' );
+            if ( index > 0 && changedTypes.contains( fullyQualifiedClassName.substring( 0,
+                                                                                      index ) ) ) {
+                affectedTypes.add( fullyQualifiedClassName );
+            }
+        }
+
+        if ( affectedTypes.isEmpty() ) {
+            setVersion( project,
+                        builder,
+                        typeChangeCount,
+                        projectOracle );
+            return projectOracle;
+        }
+
+        //Re-build the affected types that remain available
+        final ProjectDataModelOracleBuilder pdBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
+        final List<String[]> classes = new ArrayList<String[]>();
+        for ( String fullyQualifiedClassName : affectedTypes ) {
+            final String[] availableClass = availableClasses.get( fullyQualifiedClassName );
+            if ( availableClass != null ) {
+                classes.add( availableClass );
+            }
+        }
+        addClasses( pdBuilder,
+                    builder,
+                    kieModuleMetaData,
+                    classes );
+
+        final ProjectDataModelOracle newProjectOracle = ipdBuilder.removeTypes( affectedTypes )
+                .addChanges( pdBuilder.build() )
+                .setPackages( packageNamesWhiteList )
+                .build();
+        log.debug( "Updated {} of {} types in ProjectDataModelOracle.",
+                   affectedTypes.size(),
+                   newProjectOracle.getProjectModelFields().size() );
+
+        setVersion( project,
+                    builder,
+                    typeChangeCount,
+                    newProjectOracle );
+        saveSnapshot( project,
+                      builder,
+                      contentDigest,
+                      newProjectOracle );
+        return newProjectOracle;
     }
 
     private ProjectDataModelOracle makeProjectOracle( final KieProject project ) {
         //Get a Builder for the project
         final Builder builder = cache.assertBuilder( project );
 
+        //Changes made by incremental builds after this point are applied when the ProjectOracle is next requested.
+        //The content digest is taken afterwards so a snapshot is never older than the digest it is saved with.
+        final int typeChangeCount = builder.getTypeChangeCount();
+        final String contentDigest = snapshots.isEnabled() ? builder.getContentDigest() : null;
+
+        //Use a persisted ProjectOracle, if one was made from the same content, to avoid building the KieModule
+        if ( snapshots.isEnabled() ) {
+            final ProjectDataModelOracle snapshot = snapshots.load( builder.getGAV(),
+                                                                    project.getRootPath().toURI(),
+                                                                    contentDigest );
+            if ( snapshot != null ) {
+                log.debug( "Loaded ProjectDataModelOracle for {} from snapshot.",
+                           project.getRootPath().toURI() );
+                setVersion( project,
+                            builder,
+                            typeChangeCount,
+                            snapshot );
+                return snapshot;
+            }
+        }
+
         //Create the ProjectOracle...
-        final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData( builder.getKieModuleIgnoringErrors() );
+        final KieModuleMetaData kieModuleMetaData = builder.getKieModuleMetaData();
         final ProjectDataModelOracleBuilder pdBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
 
         //Get a "white list" of package names that are available for authoring
@@ -103,27 +333,18 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
         pdBuilder.addPackages( packageNamesWhiteList );
 
         //Add all classes from the KieModule metaData
-        final Map<String, FactBuilder> discoveredFieldFactBuilders = new HashMap<String, FactBuilder>();
+        final List<String[]> classes = new ArrayList<String[]>();
         for ( final String packageName : kieModuleMetaData.getPackages() ) {
             if ( packageNamesWhiteList.contains( packageName ) ) {
                 for ( final String className : kieModuleMetaData.getClasses( packageName ) ) {
-                    try {
-                        final Class clazz = kieModuleMetaData.getClass( packageName,
-                                                                        className );
-                        final TypeMetaInfo typeMetaInfo = kieModuleMetaData.getTypeMetaInfo( clazz );
-                        final TypeSource typeSource = builder.getClassSource( kieModuleMetaData,
-                                                                              clazz );
-                        pdBuilder.addClass( clazz,
-                                            discoveredFieldFactBuilders,
-                                            typeMetaInfo.isEvent(),
-                                            typeSource );
-
-                    } catch ( Throwable e ) {
-                        log.error( e.getMessage() );
-                    }
+                    classes.add( new String[]{ packageName, className } );
                 }
             }
         }
+        addClasses( pdBuilder,
+                    builder,
+                    kieModuleMetaData,
+                    classes );
 
         //Add external imports. The availability of these classes is checked in Builder and failed fast. Here we load them into the DMO
         final org.uberfire.java.nio.file.Path nioExternalImportsPath = Paths.convert( project.getImportsPath() );
@@ -134,10 +355,8 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
             for ( final Import item : imports.getImports() ) {
                 try {
                     Class clazz = this.getClass().getClassLoader().loadClass( item.getType() );
-                    pdBuilder.addClass( clazz,
-                                        discoveredFieldFactBuilders,
-                                        false,
-                                        TypeSource.JAVA_DEPENDENCY );
+                    pdBuilder.addOracle( dependencyFactCache.getFacts( clazz,
+                                                                       false ) );
                 } catch ( ClassNotFoundException cnfe ) {
                     //This would have been raised to the user by Builder's validation but record the error here too
                     log.error( cnfe.getMessage() );
@@ -147,7 +366,134 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
             }
         }
 
-        return pdBuilder.build();
+        final ProjectDataModelOracle projectOracle = pdBuilder.build();
+        setVersion( project,
+                    builder,
+                    typeChangeCount,
+                    projectOracle );
+        saveSnapshot( project,
+                      builder,
+                      contentDigest,
+                      projectOracle );
+        return projectOracle;
+    }
+
+    //Record the position in the Builder's log of type changes the ProjectOracle reflects; earlier changes are no longer needed
+    private void setVersion( final KieProject project,
+                             final Builder builder,
+                             final int typeChangeCount,
+                             final ProjectDataModelOracle projectOracle ) {
+        versions.put( project,
+                      new OracleVersion( builder,
+                                         typeChangeCount,
+                                         projectOracle ) );
+        builder.acknowledgeTypeChanges( this,
+                                        typeChangeCount );
+    }
+
+    private void saveSnapshot( final KieProject project,
+                               final Builder builder,
+                               final String contentDigest,
+                               final ProjectDataModelOracle projectOracle ) {
+        if ( contentDigest == null ) {
+            return;
+        }
+        snapshots.save( builder.getGAV(),
+                        project.getRootPath().toURI(),
+                        contentDigest,
+                        projectOracle );
+    }
+
+    //Classes are inspected in parallel, in contiguous batches so that classes of the same package (that are likely
+    //to reference each other) share a map of discovered field FactBuilders and hence are only inspected once.
+    private void addClasses( final ProjectDataModelOracleBuilder pdBuilder,
+                             final Builder builder,
+                             final KieModuleMetaData kieModuleMetaData,
+                             final List<String[]> classes ) {
+        final int batches = Math.min( THREADS * 2,
+                                      classes.size() / MIN_BATCH_SIZE );
+        if ( batches <= 1 ) {
+            addBatch( pdBuilder,
+                      builder,
+                      kieModuleMetaData,
+                      classes );
+            return;
+        }
+
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        final int batchSize = ( classes.size() + batches - 1 ) / batches;
+        for ( int i = 0; i < classes.size(); i = i + batchSize ) {
+            final List<String[]> batch = classes.subList( i,
+                                                          Math.min( i + batchSize,
+                                                                    classes.size() ) );
+            futures.add( INSPECTOR.submit( new Runnable() {
+                @Override
+                public void run() {
+                    addBatch( pdBuilder,
+                              builder,
+                              kieModuleMetaData,
+                              batch );
+                }
+            } ) );
+        }
+        for ( Future<?> future : futures ) {
+            try {
+                future.get();
+            } catch ( InterruptedException e ) {
+                for ( Future<?> f : futures ) {
+                    f.cancel( true );
+                }
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( e );
+            } catch ( ExecutionException e ) {
+                if ( e.getCause() instanceof RuntimeException ) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException( e.getCause() );
+            }
+        }
+    }
+
+    private void addBatch( final ProjectDataModelOracleBuilder pdBuilder,
+                           final Builder builder,
+                           final KieModuleMetaData kieModuleMetaData,
+                           final List<String[]> classes ) {
+        final Map<String, FactBuilder> discoveredFieldFactBuilders = new HashMap<String, FactBuilder>();
+        for ( String[] clazz : classes ) {
+            addClass( pdBuilder,
+                      discoveredFieldFactBuilders,
+                      builder,
+                      kieModuleMetaData,
+                      clazz[ 0 ],
+                      clazz[ 1 ] );
+        }
+    }
+
+    private void addClass( final ProjectDataModelOracleBuilder pdBuilder,
+                           final Map<String, FactBuilder> discoveredFieldFactBuilders,
+                           final Builder builder,
+                           final KieModuleMetaData kieModuleMetaData,
+                           final String packageName,
+                           final String className ) {
+        try {
+            final Class clazz = kieModuleMetaData.getClass( packageName,
+                                                            className );
+            final TypeMetaInfo typeMetaInfo = kieModuleMetaData.getTypeMetaInfo( clazz );
+            final TypeSource typeSource = builder.getClassSource( kieModuleMetaData,
+                                                                  clazz );
+            if ( TypeSource.JAVA_DEPENDENCY == typeSource ) {
+                pdBuilder.addOracle( dependencyFactCache.getFacts( clazz,
+                                                                   typeMetaInfo.isEvent() ) );
+            } else {
+                pdBuilder.addClass( clazz,
+                                    discoveredFieldFactBuilders,
+                                    typeMetaInfo.isEvent(),
+                                    typeSource );
+            }
+
+        } catch ( Throwable e ) {
+            log.error( e.getMessage() );
+        }
     }
 
     private Set<String> loadPackageNameWhiteList( final KieProject project,
@@ -195,5 +541,24 @@ public class LRUProjectDataModelOracleCache extends LRUCache<KieProject, Project
         return packageNamesWhiteList;
     }
 
+    private static class OracleVersion {
+
+        private final Builder builder;
+        private final int typeChangeCount;
+        private final ProjectDataModelOracle projectOracle;
+
+        //Set when a Java class changes that may not yet have been applied to the Builder
+        private volatile boolean dirty;
+
+        private OracleVersion( final Builder builder,
+                               final int typeChangeCount,
+                               final ProjectDataModelOracle projectOracle ) {
+            this.builder = builder;
+            this.typeChangeCount = typeChangeCount;
+            this.projectOracle = projectOracle;
+        }
+
+    }
+
 }
 
@@ -0,0 +1,229 @@
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.security.ArrayTypePermission;
+import com.thoughtworks.xstream.security.NoTypePermission;
+import com.thoughtworks.xstream.security.NullPermission;
+import com.thoughtworks.xstream.security.PrimitiveTypePermission;
+import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.guvnor.common.services.project.model.GAV;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.IndexedProjectDataModelOracle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists ProjectDataModelOracles so they survive a restart. Each snapshot is stored in a compressed file named
+ * after the Project's GAV and root, together with a digest of the Project content from which it was built. A
+ * snapshot is only returned if its digest matches the Project's current content; stale snapshots are deleted.
+ * Snapshots that cannot be read are left in place, to be replaced when the ProjectDataModelOracle is next saved.
+ * Only the types that make up a snapshot are read, so a tampered file cannot instantiate arbitrary classes.
+ * Snapshots are disabled unless a directory is configured.
+ */
+public class ProjectDataModelOracleSnapshotStore {
+
+    public static final String DIRECTORY_PROPERTY = "org.kie.workbench.datamodel.project-oracle.snapshot.dir";
+
+    private static final Logger log = LoggerFactory.getLogger( ProjectDataModelOracleSnapshotStore.class );
+
+    private static final String ENCODING = "UTF-8";
+
+    private final File directory;
+
+    //XStream is thread-safe once configured
+    private final XStream xs = new XStream();
+
+    public ProjectDataModelOracleSnapshotStore() {
+        this( System.getProperty( DIRECTORY_PROPERTY ) == null ? null : new File( System.getProperty( DIRECTORY_PROPERTY ) ) );
+    }
+
+    public ProjectDataModelOracleSnapshotStore( final File directory ) {
+        this.directory = directory;
+        xs.alias( "snapshot",
+                  Snapshot.class );
+        xs.addPermission( NoTypePermission.NONE );
+        xs.addPermission( NullPermission.NULL );
+        xs.addPermission( PrimitiveTypePermission.PRIMITIVES );
+        xs.addPermission( ArrayTypePermission.ARRAYS );
+        xs.allowTypes( new Class[]{ Snapshot.class, String.class, IndexedProjectDataModelOracle.class, ProjectDataModelOracleImpl.class } );
+        xs.allowTypeHierarchy( Collection.class );
+        xs.allowTypeHierarchy( Map.class );
+        xs.allowTypesByWildcard( new String[]{ "org.drools.workbench.models.datamodel.**" } );
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Load a snapshot
+     * @param gav The Project's GAV
+     * @param projectRoot URI of the Project's root
+     * @param digest Digest of the Project's current content
+     * @return The ProjectDataModelOracle or null if there is no valid snapshot
+     */
+    public ProjectDataModelOracle load( final GAV gav,
+                                        final String projectRoot,
+                                        final String digest ) {
+        if ( !isEnabled() ) {
+            return null;
+        }
+        final File file = getFile( gav,
+                                   projectRoot );
+        if ( !file.isFile() ) {
+            return null;
+        }
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader( new GZIPInputStream( new BufferedInputStream( new FileInputStream( file ) ) ),
+                                            ENCODING );
+            final Snapshot snapshot = (Snapshot) xs.fromXML( reader );
+            if ( digest.equals( snapshot.digest ) && projectRoot.equals( snapshot.projectRoot ) ) {
+                return snapshot.oracle;
+            }
+            log.debug( "Discarding stale ProjectDataModelOracle snapshot {}.",
+                       file );
+        } catch ( Exception e ) {
+            log.warn( "Unable to read ProjectDataModelOracle snapshot {} due to {}.",
+                      file,
+                      e.getMessage() );
+            return null;
+        } finally {
+            close( reader );
+        }
+        file.delete();
+        return null;
+    }
+
+    /**
+     * Save a snapshot, replacing any existing snapshot for the Project
+     * @param gav The Project's GAV
+     * @param projectRoot URI of the Project's root
+     * @param digest Digest of the Project's content from which the ProjectDataModelOracle was built
+     * @param oracle The ProjectDataModelOracle
+     */
+    public void save( final GAV gav,
+                      final String projectRoot,
+                      final String digest,
+                      final ProjectDataModelOracle oracle ) {
+        if ( !isEnabled() ) {
+            return;
+        }
+        final File file = getFile( gav,
+                                   projectRoot );
+        Writer writer = null;
+        File temp = null;
+        try {
+            if ( !directory.isDirectory() && !directory.mkdirs() ) {
+                throw new IOException( "Unable to create " + directory );
+            }
+            //Written to a temporary file and renamed so readers never see partial snapshots
+            temp = File.createTempFile( file.getName(),
+                                        ".tmp",
+                                        directory );
+            writer = new OutputStreamWriter( new GZIPOutputStream( new BufferedOutputStream( new FileOutputStream( temp ) ) ),
+                                             ENCODING );
+            xs.toXML( new Snapshot( projectRoot,
+                                    digest,
+                                    oracle ),
+                      writer );
+            writer.close();
+            writer = null;
+            if ( !( temp.renameTo( file ) || ( file.delete() && temp.renameTo( file ) ) ) ) {
+                throw new IOException( "Unable to rename " + temp + " to " + file );
+            }
+            temp = null;
+        } catch ( Exception e ) {
+            log.warn( "Unable to write ProjectDataModelOracle snapshot {} due to {}.",
+                      file,
+                      e.getMessage() );
+        } finally {
+            close( writer );
+            if ( temp != null ) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Delete the snapshots for a Project, whatever GAV they were saved with
+     * @param projectRoot URI of the Project's root
+     */
+    public void delete( final String projectRoot ) {
+        if ( !isEnabled() ) {
+            return;
+        }
+        final File[] files = directory.listFiles();
+        if ( files == null ) {
+            return;
+        }
+        final String suffix = getSuffix( projectRoot );
+        for ( File file : files ) {
+            if ( file.getName().endsWith( suffix ) ) {
+                file.delete();
+            }
+        }
+    }
+
+    private File getFile( final GAV gav,
+                          final String projectRoot ) {
+        final String name = gav.getGroupId() + "_" + gav.getArtifactId() + "_" + gav.getVersion();
+        return new File( directory,
+                         name.replaceAll( "[^a-zA-Z0-9._-]",
+                                          "_" ) + getSuffix( projectRoot ) );
+    }
+
+    private String getSuffix( final String projectRoot ) {
+        return "_" + Integer.toHexString( projectRoot.hashCode() ) + ".dmo";
+    }
+
+    private void close( final Object closeable ) {
+        try {
+            if ( closeable instanceof InputStream ) {
+                ( (InputStream) closeable ).close();
+            } else if ( closeable instanceof OutputStream ) {
+                ( (OutputStream) closeable ).close();
+            } else if ( closeable instanceof Reader ) {
+                ( (Reader) closeable ).close();
+            } else if ( closeable instanceof Writer ) {
+                ( (Writer) closeable ).close();
+            }
+        } catch ( IOException e ) {
+            //Swallow
+        }
+    }
+
+    private static class Snapshot {
+
+        private final String projectRoot;
+        private final String digest;
+        private final ProjectDataModelOracle oracle;
+
+        private Snapshot( final String projectRoot,
+                          final String digest,
+                          final ProjectDataModelOracle oracle ) {
+            this.projectRoot = projectRoot;
+            this.digest = digest;
+            this.oracle = oracle;
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.kie.workbench.common.services.datamodel.backend.server;
+
+import java.util.HashMap;
+
+import org.drools.workbench.models.datamodel.oracle.PackageDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Basket;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
+
+import static org.junit.Assert.*;
+
+public class DataModelOracleUtilitiesIncrementalTest {
+
+    @Test
+    public void testPayloadContainsOnlyRequestedType() throws Exception {
+        final ProjectDataModelOracle projectOracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( Basket.class,
+                           new HashMap<String, FactBuilder>() )
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+        final PackageDataModelOracle oracle = PackageDataModelOracleBuilder.newPackageOracleBuilder( "org.test" )
+                .setProjectOracle( projectOracle )
+                .build();
+
+        final PackageDataModelOracleIncrementalPayload payload = new PackageDataModelOracleIncrementalPayload();
+        DataModelOracleUtilities.populateDataModel( oracle,
+                                                    payload,
+                                                    Basket.class.getName() );
+
+        assertEquals( 1,
+                      payload.getModelFields().size() );
+        assertTrue( payload.getModelFields().containsKey( Basket.class.getName() ) );
+        assertEquals( Product.class.getName(),
+                      payload.getFieldParametersType().get( Basket.class.getName() + "#products" ) );
+        assertEquals( 1,
+                      payload.getTypeSources().size() );
+        assertEquals( 1,
+                      payload.getMethodInformation().size() );
+        assertTrue( payload.getMethodInformation().containsKey( Basket.class.getName() ) );
+        for ( String qualifiedFactFieldName : payload.getFieldParametersType().keySet() ) {
+            assertTrue( qualifiedFactFieldName.startsWith( Basket.class.getName() + "#" ) );
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.packages;
+
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+
+import static org.junit.Assert.*;
+
+public class LazyPackageDataModelOracleTest {
+
+    @Test
+    public void testFacetsAreLoadedIndependently() throws Exception {
+        final CountingLoader loader = new CountingLoader();
+        final LazyPackageDataModelOracle oracle = new LazyPackageDataModelOracle( "org.test",
+                                                                                  loader );
+        assertEquals( "org.test",
+                      oracle.getPackageName() );
+
+        assertEquals( 1,
+                      oracle.getPackageDslConditionSentences().size() );
+        assertEquals( 0,
+                      oracle.getPackageDslActionSentences().size() );
+        assertEquals( 1,
+                      loader.dsls );
+        assertEquals( 0,
+                      loader.projectOracles + loader.enums + loader.globals );
+
+        assertEquals( "org.test.Product",
+                      oracle.getPackageGlobals().get( "product" ) );
+        assertEquals( 1,
+                      loader.globals );
+        assertEquals( 0,
+                      loader.projectOracles + loader.enums );
+
+        assertTrue( oracle.getProjectModelFields().containsKey( Product.class.getName() ) );
+        assertTrue( oracle.getProjectTypeSources().containsKey( Product.class.getName() ) );
+        assertEquals( 1,
+                      loader.projectOracles );
+        assertEquals( 0,
+                      loader.enums );
+
+        assertEquals( 1,
+                      oracle.getPackageWorkbenchDefinitions().size() );
+        assertEquals( 1,
+                      oracle.getPackageWorkbenchDefinitions().size() );
+        assertEquals( 1,
+                      loader.enums );
+        assertEquals( 1,
+                      loader.dsls );
+    }
+
+    @Test
+    public void testProjectChangeRetainsPackageFacets() throws Exception {
+        final CountingLoader loader = new CountingLoader();
+        final LazyPackageDataModelOracle oracle = new LazyPackageDataModelOracle( "org.test",
+                                                                                  loader );
+        oracle.getPackageDslConditionSentences();
+        oracle.getPackageGlobals();
+        oracle.getPackageWorkbenchDefinitions();
+        oracle.getProjectModelFields();
+
+        final LazyPackageDataModelOracle changed = new LazyPackageDataModelOracle( oracle );
+        assertEquals( "org.test",
+                      changed.getPackageName() );
+        assertEquals( 1,
+                      changed.getPackageDslConditionSentences().size() );
+        assertEquals( "org.test.Product",
+                      changed.getPackageGlobals().get( "product" ) );
+        assertEquals( 1,
+                      loader.dsls );
+        assertEquals( 1,
+                      loader.globals );
+
+        //The Project's DataModelOracle and enumerations, that may use the Project's classes, are re-loaded
+        assertTrue( changed.getProjectModelFields().containsKey( Product.class.getName() ) );
+        assertEquals( 1,
+                      changed.getPackageWorkbenchDefinitions().size() );
+        assertEquals( 2,
+                      loader.projectOracles );
+        assertEquals( 2,
+                      loader.enums );
+    }
+
+    @Test
+    public void testFacetsDoNotWaitForEachOther() throws Exception {
+        final CountDownLatch loading = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final CountingLoader loader = new CountingLoader() {
+            @Override
+            public ProjectDataModelOracle loadProjectOracle() {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.loadProjectOracle();
+            }
+        };
+        final LazyPackageDataModelOracle oracle = new LazyPackageDataModelOracle( "org.test",
+                                                                                  loader );
+
+        final Thread projectOracleLoader = new Thread() {
+            @Override
+            public void run() {
+                oracle.getProjectModelFields();
+            }
+        };
+        projectOracleLoader.start();
+        assertTrue( loading.await( 5,
+                                   TimeUnit.SECONDS ) );
+
+        //Loaded while the Project's DataModelOracle is still loading
+        assertEquals( 1,
+                      oracle.getPackageDslConditionSentences().size() );
+        assertEquals( "org.test.Product",
+                      oracle.getPackageGlobals().get( "product" ) );
+        assertEquals( 1,
+                      oracle.getPackageWorkbenchDefinitions().size() );
+
+        release.countDown();
+        projectOracleLoader.join( 5000 );
+        assertTrue( oracle.getProjectModelFields().containsKey( Product.class.getName() ) );
+    }
+
+    private static class CountingLoader implements LazyPackageDataModelOracle.Loader {
+
+        private int projectOracles;
+        private int enums;
+        private int dsls;
+        private int globals;
+
+        @Override
+        public ProjectDataModelOracle loadProjectOracle() {
+            projectOracles++;
+            try {
+                return ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                        .addClass( Product.class,
+                                   new HashMap<String, FactBuilder>() )
+                        .build();
+            } catch ( Exception e ) {
+                throw new IllegalStateException( e );
+            }
+        }
+
+        @Override
+        public void loadEnums( final PackageDataModelOracleBuilder builder ) {
+            enums++;
+            builder.addEnum( "Product",
+                             "colour",
+                             new String[]{ "GREEN", "YELLOW" } );
+        }
+
+        @Override
+        public void loadDsls( final PackageDataModelOracleBuilder builder ) {
+            dsls++;
+            builder.addDsl( "[when]There is a Product=Product()" );
+        }
+
+        @Override
+        public void loadGlobals( final PackageDataModelOracleBuilder builder ) {
+            globals++;
+            builder.addGlobals( "global org.test.Product product;" );
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.PapaSmurf;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.Smurf;
+
+import static org.junit.Assert.*;
+
+public class IncrementalProjectDataModelOracleBuilderTest {
+
+    @Test
+    public void testDependentTypes() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( PapaSmurf.class,
+                           new HashMap<String, FactBuilder>() )
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+
+        final Set<String> dependents = IncrementalProjectDataModelOracleBuilder.newIncrementalOracleBuilder( oracle ).getDependentTypes( Collections.singleton( Smurf.class.getName() ) );
+
+        assertTrue( dependents.contains( PapaSmurf.class.getName() ) );
+        assertFalse( dependents.contains( Product.class.getName() ) );
+    }
+
+    @Test
+    public void testChangedTypesAreReplaced() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( PapaSmurf.class,
+                           new HashMap<String, FactBuilder>() )
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+
+        final ProjectDataModelOracleBuilder changes = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
+        changes.addFact( PapaSmurf.class.getName(),
+                         true,
+                         TypeSource.DECLARED );
+
+        final ProjectDataModelOracle updated = IncrementalProjectDataModelOracleBuilder.newIncrementalOracleBuilder( oracle )
+                .removeTypes( Collections.singleton( PapaSmurf.class.getName() ) )
+                .addChanges( changes.build() )
+                .build();
+
+        //Changed type
+        assertEquals( TypeSource.DECLARED,
+                      updated.getProjectTypeSources().get( PapaSmurf.class.getName() ) );
+        assertTrue( updated.getProjectEventTypes().get( PapaSmurf.class.getName() ) );
+        assertNull( updated.getProjectSuperTypes().get( PapaSmurf.class.getName() ) );
+
+        //Unchanged type
+        assertEquals( oracle.getProjectModelFields().get( Product.class.getName() ).length,
+                      updated.getProjectModelFields().get( Product.class.getName() ).length );
+        assertEquals( TypeSource.JAVA_PROJECT,
+                      updated.getProjectTypeSources().get( Product.class.getName() ) );
+
+        //Existing oracle is unchanged
+        assertEquals( TypeSource.JAVA_PROJECT,
+                      oracle.getProjectTypeSources().get( PapaSmurf.class.getName() ) );
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.HashMap;
+
+import org.drools.workbench.models.datamodel.oracle.DataType;
+import org.drools.workbench.models.datamodel.oracle.FieldAccessorsAndMutators;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.DataModelOracleUtilities;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+
+import static org.junit.Assert.*;
+
+public class IndexedProjectDataModelOracleTest {
+
+    @Test
+    public void testLookups() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+
+        assertTrue( oracle instanceof IndexedProjectDataModelOracle );
+        assertEquals( Product.Colour.class.getName(),
+                      DataModelOracleUtilities.getFieldClassName( oracle,
+                                                                  Product.class.getName(),
+                                                                  "colour" ) );
+        assertNull( DataModelOracleUtilities.getFieldClassName( oracle,
+                                                                Product.class.getName(),
+                                                                "missing" ) );
+        assertNull( DataModelOracleUtilities.getFieldClassName( oracle,
+                                                                "org.test.Missing",
+                                                                "colour" ) );
+    }
+
+    @Test
+    public void testFactNameDiffersFromClassName() throws Exception {
+        final IndexedProjectDataModelOracle oracle = new IndexedProjectDataModelOracle();
+        final HashMap<String, ModelField[]> modelFields = new HashMap<String, ModelField[]>();
+        modelFields.put( "Smurf",
+                         new ModelField[]{ new ModelField( DataType.TYPE_THIS,
+                                                           "org.test.Smurf",
+                                                           ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                           ModelField.FIELD_ORIGIN.SELF,
+                                                           FieldAccessorsAndMutators.ACCESSOR,
+                                                           DataType.TYPE_THIS ) } );
+        assertNull( oracle.getFactNameFromType( "org.test.Smurf" ) );
+
+        //Indexes are discarded when model fields are added
+        oracle.addProjectModelFields( modelFields );
+        assertEquals( "Smurf",
+                      oracle.getFactNameFromType( "org.test.Smurf" ) );
+        assertEquals( "org.test.Smurf",
+                      oracle.getField( "Smurf",
+                                       DataType.TYPE_THIS ).getClassName() );
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.annotations.RoleSmurf;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.annotations.SmurfHouse;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.PapaSmurf;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.Smurf;
+
+import static org.junit.Assert.*;
+
+public class ProjectDataModelOracleBuilderConcurrencyTest {
+
+    private static final List<Class<?>> CLASSES = Arrays.<Class<?>>asList( Product.class,
+                                                                         RoleSmurf.class,
+                                                                         SmurfHouse.class,
+                                                                         PapaSmurf.class,
+                                                                         Smurf.class );
+
+    @Test
+    public void testClassesAddedConcurrently() throws Exception {
+        final ProjectDataModelOracleBuilder sequentialBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
+        final HashMap<String, FactBuilder> discoveredFieldFactBuilders = new HashMap<String, FactBuilder>();
+        for ( Class<?> clazz : CLASSES ) {
+            sequentialBuilder.addClass( clazz,
+                                        discoveredFieldFactBuilders );
+        }
+        final ProjectDataModelOracle sequential = sequentialBuilder.build();
+
+        final ProjectDataModelOracleBuilder concurrentBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
+        final ExecutorService executor = Executors.newFixedThreadPool( CLASSES.size() );
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for ( final Class<?> clazz : CLASSES ) {
+                futures.add( executor.submit( new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        concurrentBuilder.addClass( clazz,
+                                                    new HashMap<String, FactBuilder>() );
+                        return null;
+                    }
+                } ) );
+            }
+            for ( Future<Void> future : futures ) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        final ProjectDataModelOracle concurrent = concurrentBuilder.build();
+
+        assertEquals( sequential.getProjectModelFields().keySet(),
+                      concurrent.getProjectModelFields().keySet() );
+        for ( String type : sequential.getProjectModelFields().keySet() ) {
+            assertEquals( sequential.getProjectModelFields().get( type ).length,
+                          concurrent.getProjectModelFields().get( type ).length );
+        }
+        assertEquals( sequential.getProjectSuperTypes(),
+                      concurrent.getProjectSuperTypes() );
+        assertEquals( sequential.getProjectJavaEnumDefinitions().keySet(),
+                      concurrent.getProjectJavaEnumDefinitions().keySet() );
+        assertEquals( sequential.getProjectMethodInformation().keySet(),
+                      concurrent.getProjectMethodInformation().keySet() );
+    }
+
+}
@@ -157,5 +157,21 @@ public class DataEnumLoaderTests {
         assertTrue( loader.getErrors().contains( "Invalid definition: Field definitions are incomplete." ) );
     }
 
+    @Test
+    public void testLiteralEnum() {
+        assertTrue( DataEnumLoader.isLiteral( "[ 'Fact.field' : [ 'a', \"b, c\" ], 'Fact.number' : [ 1, 2.5, -3 ] ]" ) );
+        assertTrue( DataEnumLoader.isLiteral( "[ 'Fact.field' : 'a\\'s' ]" ) );
+        assertFalse( DataEnumLoader.isLiteral( "[ 'Fact.field' : org.test.Helper.getValues() ]" ) );
+        assertFalse( DataEnumLoader.isLiteral( "[ 'Fact.field' : [ 'a', 'b ]" ) );
+    }
+
+    @Test
+    public void testEnumCallingHelperIsReEvaluated() {
+        final String e = "'Fact.field' : " + EnumValuesHelper.class.getName() + ".getValues()";
+        final int calls = EnumValuesHelper.getCalls();
+        assertFalse( new DataEnumLoader( e ).hasErrors() );
+        assertFalse( new DataEnumLoader( e ).hasErrors() );
+        assertTrue( EnumValuesHelper.getCalls() == calls + 2 );
+    }
 
 }
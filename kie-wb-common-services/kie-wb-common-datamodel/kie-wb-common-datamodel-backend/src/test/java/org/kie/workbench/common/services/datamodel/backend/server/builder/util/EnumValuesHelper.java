@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helper called from enumeration definitions, counting how often it is called
+ */
+public class EnumValuesHelper {
+
+    private static int calls;
+
+    public static synchronized List<String> getValues() {
+        calls++;
+        return Arrays.asList( "a",
+                              "b" );
+    }
+
+    public static synchronized int getCalls() {
+        return calls;
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.builder.ExternalClassVerifier;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.PapaSmurf;
+
+import static org.junit.Assert.*;
+
+public class DependencyFactCacheTest {
+
+    @Test
+    public void testFactsAreShared() throws Exception {
+        final DependencyFactCache cache = new DependencyFactCache( new ExternalClassVerifier() {
+            @Override
+            public String getArtifactKey( final Class<?> clazz ) {
+                return "model.jar";
+            }
+        } );
+
+        final ProjectDataModelOracle facts = cache.getFacts( Product.class,
+                                                             false );
+
+        assertSame( facts,
+                    cache.getFacts( Product.class,
+                                    false ) );
+        assertNotSame( facts,
+                       cache.getFacts( Product.class,
+                                       true ) );
+        assertTrue( facts.getProjectModelFields().containsKey( Product.class.getName() ) );
+        assertEquals( TypeSource.JAVA_DEPENDENCY,
+                      facts.getProjectTypeSources().get( Product.class.getName() ) );
+        assertEquals( 2,
+                      cache.size() );
+    }
+
+    @Test
+    public void testFactsAreOnlySharedBetweenClassLoadersWithTheSameDependencies() throws Exception {
+        final DependencyFactCache cache = new DependencyFactCache( new ExternalClassVerifier() {
+            @Override
+            public String getArtifactKey( final Class<?> clazz ) {
+                return "model.jar";
+            }
+        } );
+        final URL classes = Product.class.getProtectionDomain().getCodeSource().getLocation();
+        final URL dependency = new File( System.getProperty( "java.io.tmpdir" ) ).toURI().toURL();
+
+        final Class<?> product1 = loadProduct( classes );
+        final Class<?> product2 = loadProduct( classes );
+        final Class<?> product3 = loadProduct( classes,
+                                               dependency );
+
+        final ProjectDataModelOracle facts = cache.getFacts( product1,
+                                                             false );
+        assertSame( facts,
+                    cache.getFacts( product2,
+                                    false ) );
+        assertNotSame( facts,
+                       cache.getFacts( product3,
+                                       false ) );
+        assertEquals( 2,
+                      cache.size() );
+    }
+
+    @Test
+    public void testFactsOfClassesNotFromJarsAreNotCached() throws Exception {
+        final DependencyFactCache cache = new DependencyFactCache( new ExternalClassVerifier() {
+            @Override
+            public String getArtifactKey( final Class<?> clazz ) {
+                return null;
+            }
+        } );
+
+        final ProjectDataModelOracle facts = cache.getFacts( PapaSmurf.class,
+                                                             false );
+
+        assertTrue( facts.getProjectModelFields().containsKey( PapaSmurf.class.getName() ) );
+        assertNotSame( facts,
+                       cache.getFacts( PapaSmurf.class,
+                                       false ) );
+        assertEquals( 0,
+                      cache.size() );
+    }
+
+    private Class<?> loadProduct( final URL... urls ) throws Exception {
+        return new URLClassLoader( urls,
+                                   null ).loadClass( Product.class.getName() );
+    }
+
+}
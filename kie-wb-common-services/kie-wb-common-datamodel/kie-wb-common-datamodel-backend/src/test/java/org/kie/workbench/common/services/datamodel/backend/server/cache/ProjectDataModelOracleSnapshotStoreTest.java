@@ -0,0 +1,201 @@
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.guvnor.common.services.project.model.GAV;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.IndexedProjectDataModelOracle;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+
+import static org.junit.Assert.*;
+
+public class ProjectDataModelOracleSnapshotStoreTest {
+
+    private static final String ROOT = "default://p0/project";
+
+    private File directory;
+    private ProjectDataModelOracleSnapshotStore store;
+    private GAV gav;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile( "dmo-snapshots",
+                                         "" );
+        directory.delete();
+        store = new ProjectDataModelOracleSnapshotStore( directory );
+        gav = new GAV( "org.test",
+                       "project",
+                       "1.0" );
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final File[] files = directory.listFiles();
+        if ( files != null ) {
+            for ( File file : files ) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testSnapshotIsRestored() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+
+        store.save( gav,
+                    ROOT,
+                    "digest",
+                    oracle );
+        final ProjectDataModelOracle restored = store.load( gav,
+                                                            ROOT,
+                                                            "digest" );
+
+        assertNotNull( restored );
+        assertEquals( oracle.getProjectModelFields().keySet(),
+                      restored.getProjectModelFields().keySet() );
+        assertEquals( oracle.getProjectModelFields().get( Product.class.getName() ).length,
+                      restored.getProjectModelFields().get( Product.class.getName() ).length );
+        assertEquals( oracle.getProjectTypeSources(),
+                      restored.getProjectTypeSources() );
+    }
+
+    @Test
+    public void testSnapshotFactsAreRestored() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+        assertTrue( oracle instanceof IndexedProjectDataModelOracle );
+
+        store.save( gav,
+                    ROOT,
+                    "digest",
+                    oracle );
+        final ProjectDataModelOracle restored = store.load( gav,
+                                                            ROOT,
+                                                            "digest" );
+
+        assertTrue( restored instanceof IndexedProjectDataModelOracle );
+        final ModelField[] fields = oracle.getProjectModelFields().get( Product.class.getName() );
+        final ModelField[] restoredFields = restored.getProjectModelFields().get( Product.class.getName() );
+        assertEquals( fields.length,
+                      restoredFields.length );
+        for ( int i = 0; i < fields.length; i++ ) {
+            assertEquals( fields[ i ].getName(),
+                          restoredFields[ i ].getName() );
+            assertEquals( fields[ i ].getClassName(),
+                          restoredFields[ i ].getClassName() );
+            assertEquals( fields[ i ].getType(),
+                          restoredFields[ i ].getType() );
+        }
+
+        //Indexes are rebuilt on demand
+        final ModelField field = fields[ fields.length - 1 ];
+        assertEquals( field.getClassName(),
+                      ( (IndexedProjectDataModelOracle) restored ).getField( Product.class.getName(),
+                                                                           field.getName() ).getClassName() );
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsKept() throws Exception {
+        store.save( gav,
+                    ROOT,
+                    "digest",
+                    ProjectDataModelOracleBuilder.newProjectOracleBuilder().build() );
+        final File[] files = directory.listFiles();
+        assertEquals( 1,
+                      files.length );
+        final FileOutputStream os = new FileOutputStream( files[ 0 ] );
+        try {
+            os.write( "corrupt".getBytes( "UTF-8" ) );
+        } finally {
+            os.close();
+        }
+
+        assertNull( store.load( gav,
+                                ROOT,
+                                "digest" ) );
+        assertTrue( files[ 0 ].isFile() );
+    }
+
+    @Test
+    public void testStaleSnapshotIsDiscarded() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder()
+                .addClass( Product.class,
+                           new HashMap<String, FactBuilder>() )
+                .build();
+
+        store.save( gav,
+                    ROOT,
+                    "digest",
+                    oracle );
+
+        assertNull( store.load( gav,
+                                ROOT,
+                                "changed" ) );
+        assertNull( store.load( gav,
+                                ROOT,
+                                "digest" ) );
+    }
+
+    @Test
+    public void testSnapshotsOfProjectAreDeleted() throws Exception {
+        final ProjectDataModelOracle oracle = ProjectDataModelOracleBuilder.newProjectOracleBuilder().build();
+        final GAV changedGav = new GAV( "org.test",
+                                        "project",
+                                        "2.0" );
+        final String otherRoot = "default://p0/other";
+
+        store.save( gav,
+                    ROOT,
+                    "digest",
+                    oracle );
+        store.save( changedGav,
+                    ROOT,
+                    "digest",
+                    oracle );
+        store.save( gav,
+                    otherRoot,
+                    "digest",
+                    oracle );
+
+        store.delete( ROOT );
+
+        assertNull( store.load( gav,
+                                ROOT,
+                                "digest" ) );
+        assertNull( store.load( changedGav,
+                                ROOT,
+                                "digest" ) );
+        assertNotNull( store.load( gav,
+                                   otherRoot,
+                                   "digest" ) );
+    }
+
+    @Test
+    public void testDisabledStore() throws Exception {
+        final ProjectDataModelOracleSnapshotStore disabled = new ProjectDataModelOracleSnapshotStore( null );
+        disabled.save( gav,
+                       ROOT,
+                       "digest",
+                       ProjectDataModelOracleBuilder.newProjectOracleBuilder().build() );
+
+        assertFalse( disabled.isEnabled() );
+        assertNull( disabled.load( gav,
+                                   ROOT,
+                                   "digest" ) );
+    }
+
+}
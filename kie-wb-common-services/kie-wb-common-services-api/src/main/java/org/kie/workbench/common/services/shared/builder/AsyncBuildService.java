@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.shared.builder;
+
+import org.guvnor.common.services.project.model.Project;
+import org.jboss.errai.bus.server.annotations.Remote;
+
+/**
+ * Builds Projects in the background. Requests return immediately with a handle that can be used to query the
+ * status of, or cancel, the build. Progress is reported with BuildProgressEvents. A request for a Project that
+ * already has an equivalent build in progress joins that build, unless the Project has changed since it started
+ * in which case the in-progress build is cancelled and a new one started.
+ */
+@Remote
+public interface AsyncBuildService {
+
+    BuildStatus build( final Project project );
+
+    BuildStatus buildAndDeploy( final Project project );
+
+    BuildStatus getStatus( final String buildId );
+
+    boolean cancel( final String buildId );
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.shared.builder;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Phases reported by an asynchronous build
+ */
+@Portable
+public enum BuildPhase {
+
+    QUEUED,
+    LOADING_RESOURCES,
+    COMPILING,
+    VALIDATION_HELPERS,
+    IMPORTS_CHECK,
+    EXTERNAL_CLASS_VERIFICATION,
+    DEPLOYING,
+    COMPLETED,
+    CANCELLED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.shared.builder;
+
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.backend.vfs.Path;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Event raised when an asynchronous build enters a new phase
+ */
+@Portable
+public class BuildProgressEvent {
+
+    private String buildId;
+    private Path projectRootPath;
+    private BuildPhase phase;
+
+    public BuildProgressEvent() {
+    }
+
+    public BuildProgressEvent( final String buildId,
+                               final Path projectRootPath,
+                               final BuildPhase phase ) {
+        this.buildId = checkNotNull( "buildId", buildId );
+        this.projectRootPath = checkNotNull( "projectRootPath", projectRootPath );
+        this.phase = checkNotNull( "phase", phase );
+    }
+
+    public String getBuildId() {
+        return buildId;
+    }
+
+    public Path getProjectRootPath() {
+        return projectRootPath;
+    }
+
+    public BuildPhase getPhase() {
+        return phase;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.shared.builder;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.jboss.errai.common.client.api.annotations.Portable;
+
+/**
+ * Handle to an asynchronous build. BuildResults are only available once the build has completed, or has failed
+ * unexpectedly in which case they hold the error.
+ */
+@Portable
+public class BuildStatus {
+
+    private String buildId;
+    private BuildPhase phase;
+    private BuildResults results;
+
+    public BuildStatus() {
+    }
+
+    public BuildStatus( final String buildId,
+                        final BuildPhase phase,
+                        final BuildResults results ) {
+        this.buildId = buildId;
+        this.phase = phase;
+        this.results = results;
+    }
+
+    public String getBuildId() {
+        return buildId;
+    }
+
+    public BuildPhase getPhase() {
+        return phase;
+    }
+
+    public BuildResults getResults() {
+        return results;
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.model.Project;
+import org.jboss.errai.bus.server.annotations.Service;
+import org.kie.workbench.common.services.shared.builder.AsyncBuildService;
+import org.kie.workbench.common.services.shared.builder.BuildPhase;
+import org.kie.workbench.common.services.shared.builder.BuildProgressEvent;
+import org.kie.workbench.common.services.shared.builder.BuildStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+@Service
+@ApplicationScoped
+public class AsyncBuildServiceImpl
+        implements AsyncBuildService {
+
+    public static final String THREADS_PROPERTY = "org.kie.workbench.build.async.threads";
+
+    //Number of finished builds whose status is retained for getStatus()
+    private static final int MAX_FINISHED_BUILDS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger( AsyncBuildServiceImpl.class );
+
+    private static final ExecutorService BUILDER = Executors.newFixedThreadPool( Integer.getInteger( THREADS_PROPERTY,
+                                                                                                     2 ),
+                                                                                 new DaemonThreadFactory( "async-builder" ) );
+
+    private BuildServiceImpl buildService;
+    private Event<BuildProgressEvent> progressEvent;
+
+    //In-progress builds, per Project, for build() and buildAndDeploy() respectively
+    private final Map<Project, BuildTask> inProgressBuilds = new HashMap<Project, BuildTask>();
+    private final Map<Project, BuildTask> inProgressDeployments = new HashMap<Project, BuildTask>();
+
+    //Builds by id; unfinished builds are held until they finish, so that they can neither be evicted nor prevent the
+    //eviction of older finished builds, which are retained in order of finishing
+    private final Map<String, BuildTask> unfinishedBuilds = new HashMap<String, BuildTask>();
+    private final Map<String, BuildTask> finishedBuilds = new LinkedHashMap<String, BuildTask>() {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, BuildTask> eldest ) {
+            return size() > MAX_FINISHED_BUILDS;
+        }
+    };
+
+    public AsyncBuildServiceImpl() {
+        //Empty constructor for Weld
+    }
+
+    @Inject
+    public AsyncBuildServiceImpl( final BuildServiceImpl buildService,
+                                  final Event<BuildProgressEvent> progressEvent ) {
+        this.buildService = buildService;
+        this.progressEvent = progressEvent;
+    }
+
+    @Override
+    public BuildStatus build( final Project project ) {
+        return submit( project,
+                       false );
+    }
+
+    @Override
+    public BuildStatus buildAndDeploy( final Project project ) {
+        return submit( project,
+                       true );
+    }
+
+    @Override
+    public synchronized BuildStatus getStatus( final String buildId ) {
+        checkNotNull( "buildId",
+                      buildId );
+        BuildTask task = unfinishedBuilds.get( buildId );
+        if ( task == null ) {
+            task = finishedBuilds.get( buildId );
+        }
+        return task == null ? null : task.getStatus();
+    }
+
+    @Override
+    public synchronized boolean cancel( final String buildId ) {
+        checkNotNull( "buildId",
+                      buildId );
+        final BuildTask task = unfinishedBuilds.get( buildId );
+        if ( task == null || task.getPhase().isFinished() ) {
+            return false;
+        }
+        task.cancel();
+        return true;
+    }
+
+    //Builds that started before the Project changed are superseded; the next request will cancel and replace them
+    public synchronized void onProjectChanged( @Observes final InvalidateDMOProjectCacheEvent event ) {
+        checkNotNull( "event",
+                      event );
+        final Project project = event.getProject();
+        if ( project == null ) {
+            return;
+        }
+        markSuperseded( inProgressBuilds.get( project ) );
+        markSuperseded( inProgressDeployments.get( project ) );
+    }
+
+    private void markSuperseded( final BuildTask task ) {
+        if ( task != null ) {
+            task.supersede();
+        }
+    }
+
+    private synchronized BuildStatus submit( final Project project,
+                                             final boolean deploy ) {
+        checkNotNull( "project",
+                      project );
+        final Map<Project, BuildTask> inProgress = deploy ? inProgressDeployments : inProgressBuilds;
+        final BuildTask current = inProgress.get( project );
+        if ( current != null ) {
+            if ( !current.isSuperseded() ) {
+                return current.getStatus();
+            }
+            current.cancel();
+        }
+
+        final BuildTask task = new BuildTask( project,
+                                              deploy );
+        inProgress.put( project,
+                        task );
+        unfinishedBuilds.put( task.getBuildId(),
+                              task );
+        BUILDER.execute( task );
+        return task.getStatus();
+    }
+
+    private synchronized void finished( final BuildTask task ) {
+        final Map<Project, BuildTask> inProgress = task.isDeploy() ? inProgressDeployments : inProgressBuilds;
+        if ( inProgress.get( task.getProject() ) == task ) {
+            inProgress.remove( task.getProject() );
+        }
+        unfinishedBuilds.remove( task.getBuildId() );
+        finishedBuilds.put( task.getBuildId(),
+                            task );
+    }
+
+    private class BuildTask implements Runnable,
+                                       BuildProgressMonitor {
+
+        private final String buildId = UUID.randomUUID().toString();
+        private final Project project;
+        private final boolean deploy;
+
+        private volatile BuildPhase phase = BuildPhase.QUEUED;
+        private volatile BuildResults results;
+        private volatile boolean cancelled;
+        private volatile boolean superseded;
+
+        private BuildTask( final Project project,
+                           final boolean deploy ) {
+            this.project = project;
+            this.deploy = deploy;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if ( cancelled ) {
+                    throw new CancellationException();
+                }
+                if ( deploy ) {
+                    results = buildService.buildAndDeploy( project,
+                                                           false,
+                                                           this );
+                } else {
+                    results = buildService.build( project,
+                                                  this );
+                }
+                phase( BuildPhase.COMPLETED );
+
+            } catch ( CancellationException e ) {
+                phase( BuildPhase.CANCELLED );
+
+            } catch ( RuntimeException e ) {
+                //BuildServiceImpl converts build failures into BuildResults; this is unexpected
+                logger.error( e.getMessage(),
+                              e );
+                results = makeFailureResults( e );
+                phase( BuildPhase.FAILED );
+
+            } finally {
+                finished( this );
+            }
+        }
+
+        private BuildResults makeFailureResults( final Exception e ) {
+            final BuildMessage message = new BuildMessage();
+            message.setLevel( BuildMessage.Level.ERROR );
+            message.setText( e.getMessage() );
+            final BuildResults failure = new BuildResults();
+            failure.addBuildMessage( message );
+            return failure;
+        }
+
+        @Override
+        public void phase( final BuildPhase phase ) {
+            this.phase = phase;
+            try {
+                progressEvent.fire( new BuildProgressEvent( buildId,
+                                                            project.getRootPath(),
+                                                            phase ) );
+            } catch ( Exception e ) {
+                logger.warn( "Unable to report progress of build {} due to {}",
+                             buildId,
+                             e.getMessage() );
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            cancelled = true;
+        }
+
+        private void supersede() {
+            superseded = true;
+        }
+
+        private boolean isSuperseded() {
+            return superseded;
+        }
+
+        private String getBuildId() {
+            return buildId;
+        }
+
+        private Project getProject() {
+            return project;
+        }
+
+        private boolean isDeploy() {
+            return deploy;
+        }
+
+        private BuildPhase getPhase() {
+            return phase;
+        }
+
+        private BuildStatus getStatus() {
+            return new BuildStatus( buildId,
+                                    phase,
+                                    results );
+        }
+
+    }
+
+}
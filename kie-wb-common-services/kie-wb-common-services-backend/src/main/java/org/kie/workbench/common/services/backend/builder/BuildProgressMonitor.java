@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import org.kie.workbench.common.services.shared.builder.BuildPhase;
+
+/**
+ * Receives the phases of a full build and signals whether the build should be abandoned. Cancellation is
+ * checked between phases; a cancelled build throws a java.util.concurrent.CancellationException and the
+ * Builder's previously completed build remains available.
+ */
+public interface BuildProgressMonitor {
+
+    BuildProgressMonitor NONE = new BuildProgressMonitor() {
+        @Override
+        public void phase( final BuildPhase phase ) {
+            //Do nothing
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void phase( final BuildPhase phase );
+
+    boolean isCancelled();
+
+}
@@ -16,9 +16,14 @@
 
 package org.kie.workbench.common.services.backend.builder;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -35,6 +40,7 @@ import org.guvnor.common.services.project.model.Project;
 import org.guvnor.common.services.project.service.POMService;
 import org.guvnor.m2repo.backend.server.ExtendedM2RepoService;
 import org.jboss.errai.bus.server.annotations.Service;
+import org.kie.workbench.common.services.shared.builder.BuildPhase;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.slf4j.Logger;
@@ -42,12 +48,15 @@ import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
 
 @Service
 @ApplicationScoped
 public class BuildServiceImpl
         implements BuildService {
 
+    public static final String REUSE_BUILDER_PROPERTY = "org.kie.workbench.build.reuse-builder";
+
     private static final Logger logger = LoggerFactory.getLogger( BuildServiceImpl.class );
 
     private POMService pomService;
@@ -55,6 +64,11 @@ public class BuildServiceImpl
     private KieProjectService projectService;
     private LRUBuilderCache cache;
     private Instance<PostBuildHandler> handlers;
+    private IncrementalBuildCoalescer coalescer;
+    private final KieModuleJarWriter jarWriter = new KieModuleJarWriter();
+    private final PostBuildHandlerExecutor postBuildHandlerExecutor = new PostBuildHandlerExecutor();
+    private final boolean reuseBuilder = Boolean.parseBoolean( System.getProperty( REUSE_BUILDER_PROPERTY,
+                                                                                  "true" ) );
 
     public BuildServiceImpl() {
         //Empty constructor for Weld
@@ -71,14 +85,29 @@ public class BuildServiceImpl
         this.projectService = projectService;
         this.cache = cache;
         this.handlers = handlers;
+        this.coalescer = new IncrementalBuildCoalescer( cache );
     }
 
     @Override
     public BuildResults build( final Project project ) {
+        return build( project,
+                      BuildProgressMonitor.NONE );
+    }
+
+    /**
+     * Build a Project reporting progress to the given monitor.
+     * @throws CancellationException if the monitor cancelled the build
+     */
+    BuildResults build( final Project project,
+                        final BuildProgressMonitor monitor ) {
         try {
-            final BuildResults results = doBuild( project );
+            final BuildResults results = doBuild( project,
+                                                  monitor );
             return results;
 
+        } catch ( CancellationException e ) {
+            throw e;
+
         } catch ( Exception e ) {
             logger.error( e.getMessage(),
                           e );
@@ -96,32 +125,44 @@ public class BuildServiceImpl
 
     @Override
     public BuildResults buildAndDeploy( final Project project, boolean suppressHandlers ) {
+        return buildAndDeploy( project,
+                               suppressHandlers,
+                               BuildProgressMonitor.NONE );
+    }
+
+    /**
+     * Build and deploy a Project reporting progress to the given monitor. Once deployment has started the build
+     * can no longer be cancelled.
+     * @throws CancellationException if the monitor cancelled the build
+     */
+    BuildResults buildAndDeploy( final Project project,
+                                 final boolean suppressHandlers,
+                                 final BuildProgressMonitor monitor ) {
         try {
             //Build
-            final BuildResults results = doBuild( project );
+            final BuildResults results = doBuild( project,
+                                                  monitor );
 
             //Deploy, if no errors
             final POM pom = pomService.load( project.getPomXMLPath() );
             if ( results.getErrorMessages().isEmpty() ) {
+                monitor.phase( BuildPhase.DEPLOYING );
                 final Builder builder = cache.assertBuilder( project );
                 final InternalKieModule kieModule = (InternalKieModule) builder.getKieModule();
-                final ByteArrayInputStream input = new ByteArrayInputStream( kieModule.getBytes() );
-                m2RepoService.deployJar( input,
-                        pom.getGav() );
+                deploy( kieModule,
+                        pom );
 
                 if (!suppressHandlers) {
-                    for ( PostBuildHandler handler : handlers ) {
-                        try {
-                            handler.process( results );
-                        } catch ( Exception e ) {
-                            logger.warn( "PostBuildHandler {} failed due to {}", handler, e.getMessage() );
-                        }
-                    }
+                    postBuildHandlerExecutor.execute( handlers,
+                                                      results );
                 }
             }
 
             return results;
 
+        } catch ( CancellationException e ) {
+            throw e;
+
         } catch ( Exception e ) {
             logger.error( e.getMessage(), e );
 
@@ -131,6 +172,29 @@ public class BuildServiceImpl
         }
     }
 
+    //The jar is streamed to a temporary file and from there to the repository, rather than being materialized in memory
+    private void deploy( final InternalKieModule kieModule,
+                         final POM pom ) throws IOException {
+        final File jar = jarWriter.writeToTempFile( kieModule );
+        InputStream input = null;
+        try {
+            input = new BufferedInputStream( new FileInputStream( jar ) );
+            m2RepoService.deployJar( input,
+                                     pom.getGav() );
+        } finally {
+            if ( input != null ) {
+                try {
+                    input.close();
+                } catch ( IOException e ) {
+                    //Swallow
+                }
+            }
+            if ( !jar.delete() ) {
+                jar.deleteOnExit();
+            }
+        }
+    }
+
     /**
      * When an exception is produced by the builder service, this method is uses to generate an instance of
      * <code>org.guvnor.common.services.project.builder.model.BuildResults</code> in generated with the exception details.
@@ -147,13 +211,34 @@ public class BuildServiceImpl
         return exceptionResults;
     }
 
-    private BuildResults doBuild( final Project project ) {
-        cache.invalidateCache( project );
-        final Builder builder = cache.assertBuilder( project );
-        final BuildResults results = builder.build();
+    private BuildResults doBuild( final Project project,
+                                  final BuildProgressMonitor monitor ) {
+        monitor.phase( BuildPhase.LOADING_RESOURCES );
+        final Builder builder;
+        if ( reuseBuilder ) {
+            //Re-use the cached Builder's KieFileSystem; only resources that have changed since it was loaded are re-written.
+            //Reconcile whether or not it has been built, as an unbuilt Builder may have been loaded some time ago. A Builder that
+            //was not yet cached has only just loaded its resources, so is not reconciled.
+            final Builder cached = cache.getCachedBuilder( project );
+            builder = cache.assertBuilder( project );
+            if ( builder == cached ) {
+                builder.reconcileResources();
+            }
+        } else {
+            cache.invalidateCache( project );
+            builder = cache.assertBuilder( project );
+        }
+        final BuildResults results = builder.build( monitor );
         return results;
     }
 
+    /**
+     * Timings of PostBuildHandlers run after deployment, keyed by handler class name
+     */
+    public Map<String, PostBuildHandlerExecutor.HandlerTiming> getPostBuildHandlerTimings() {
+        return postBuildHandlerExecutor.getTimings();
+    }
+
     @Override
     public boolean isBuilt( final Project project ) {
         final Builder builder = cache.assertBuilder( project );
@@ -172,7 +257,10 @@ public class BuildServiceImpl
             if ( !builder.isBuilt() ) {
                 throw new IllegalStateException( "Incremental Build requires a full build be completed first." );
             } else {
-                results = builder.addResource( Paths.convert( resource ) );
+                results = doIncrementalBuild( project,
+                                              builder,
+                                              resource,
+                                              ResourceChangeType.ADD );
             }
 
             return results;
@@ -196,7 +284,10 @@ public class BuildServiceImpl
             if ( !builder.isBuilt() ) {
                 throw new IllegalStateException( "Incremental Build requires a full build be completed first." );
             } else {
-                results = builder.deleteResource( Paths.convert( resource ) );
+                results = doIncrementalBuild( project,
+                                              builder,
+                                              resource,
+                                              ResourceChangeType.DELETE );
             }
 
             return results;
@@ -220,7 +311,10 @@ public class BuildServiceImpl
             if ( !builder.isBuilt() ) {
                 throw new IllegalStateException( "Incremental Build requires a full build be completed first." );
             } else {
-                results = builder.updateResource( Paths.convert( resource ) );
+                results = doIncrementalBuild( project,
+                                              builder,
+                                              resource,
+                                              ResourceChangeType.UPDATE );
             }
 
             return results;
@@ -232,6 +326,30 @@ public class BuildServiceImpl
         }
     }
 
+    private IncrementalBuildResults doIncrementalBuild( final KieProject project,
+                                                        final Builder builder,
+                                                        final Path resource,
+                                                        final ResourceChangeType type ) throws InterruptedException {
+        if ( coalescer.isEnabled() ) {
+            try {
+                return coalescer.submit( project,
+                                         resource,
+                                         type );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+        switch ( type ) {
+            case ADD:
+                return builder.addResource( Paths.convert( resource ) );
+            case DELETE:
+                return builder.deleteResource( Paths.convert( resource ) );
+            default:
+                return builder.updateResource( Paths.convert( resource ) );
+        }
+    }
+
     @Override
     public IncrementalBuildResults applyBatchResourceChanges( final Project project,
                                                               final Map<Path, Collection<ResourceChange>> changes ) {
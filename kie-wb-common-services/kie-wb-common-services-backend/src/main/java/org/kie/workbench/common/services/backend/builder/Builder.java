@@ -16,16 +16,33 @@
 
 package org.kie.workbench.common.services.backend.builder;
 
-import java.io.BufferedInputStream;
-import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.drools.workbench.models.datamodel.imports.Import;
 import org.drools.workbench.models.datamodel.imports.Imports;
@@ -50,6 +67,8 @@ import org.kie.api.runtime.KieContainer;
 import org.kie.internal.builder.IncrementalResults;
 import org.kie.internal.builder.InternalKieBuilder;
 import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.enums.EnumExpressionCache;
+import org.kie.workbench.common.services.shared.builder.BuildPhase;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
 import org.slf4j.Logger;
@@ -61,6 +80,8 @@ import org.uberfire.java.nio.file.Files;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.workbench.events.ResourceChange;
 import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
 
 import static org.uberfire.commons.validation.PortablePreconditions.*;
 
@@ -70,6 +91,24 @@ public class Builder {
 
     private static final Logger logger = LoggerFactory.getLogger( Builder.class );
 
+    /**
+     * Recorded as a type change when a resource other than a Java class changes, as it may declare types
+     */
+    public static final String ANY_DECLARED_TYPE = "*";
+
+    //Maximum number of type changes retained; readers further behind have to assume everything has changed
+    private static final int MAX_TYPE_CHANGES = 1000;
+
+    public static final String LOADER_THREADS_PROPERTY = "org.kie.workbench.builder.loader.threads";
+
+    //Shared, bounded, pool used to load Project resources when a Builder is created
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool( Integer.getInteger( LOADER_THREADS_PROPERTY,
+                                                                                                    Runtime.getRuntime().availableProcessors() ),
+                                                                                new DaemonThreadFactory( "builder-resource-loader" ) );
+
+    //Approximate memory retained per class available in the KieModule (Class, meta-data and KieContainer structures)
+    private static final long CLASS_WEIGHT = 4 * 1024;
+
     //TODO internationalize error messages?.
     private final static String ERROR_EXTERNAL_CLASS_VERIFICATON = "Verification of class {0} failed and will not be available for authoring.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
@@ -77,7 +116,6 @@ public class Builder {
     private final static String ERROR_CLASS_NOT_FOUND = "Definition of class \"{0}\" was not found.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
-    private KieBuilder kieBuilder;
     private final KieServices kieServices;
     private final KieFileSystem kieFileSystem;
     private final Path moduleDirectory;
@@ -91,15 +129,47 @@ public class Builder {
 
     private ProjectImportsService importsService;
     private final List<BuildValidationHelper> buildValidationHelpers;
+    private final ExternalClassVerifier externalClassVerifier;
+    private final ExecutorService loader;
     private final Map<Path, BuildValidationHelper> nonKieResourceValidationHelpers = new HashMap<Path, BuildValidationHelper>();
     private final Map<Path, List<ValidationMessage>> nonKieResourceValidationHelperMessages = new HashMap<Path, List<ValidationMessage>>();
 
     private final DirectoryStream.Filter<Path> javaResourceFilter = new JavaFileFilter();
     private final DirectoryStream.Filter<Path> dotFileFilter = new DotFileFilter();
 
-    private Set<String> javaResources = new HashSet<String>();
+    private final Set<String> javaResources = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    //Mutations (full and incremental builds) are serialized, in arrival order, on this lock.
+    private final ReentrantLock lock = new ReentrantLock( true );
+
+    //The state of the last completed full build. Readers use this without locking.
+    private volatile BuildSnapshot snapshot;
+
+    //Incremental builds update the KieModule of the last full build in place; readers wait whilst one is applied
+    private final ReentrantReadWriteLock moduleLock = new ReentrantReadWriteLock();
 
-    private KieContainer kieContainer;
+    //Digests and sizes of the content written to the KieFileSystem, keyed by KieFileSystem path
+    private final Map<String, byte[]> resourceDigests = new HashMap<String, byte[]>();
+    private final Map<String, Integer> resourceSizes = new HashMap<String, Integer>();
+    private final AtomicLong resourceBytes = new AtomicLong();
+    private volatile int classCount;
+
+    //Types changed since the Builder was created, in order; Java classes by name, other resources as ANY_DECLARED_TYPE.
+    //Entries every reader has acknowledged are trimmed; typeChangesStart is the position of the first one retained.
+    private final List<String> typeChanges = new ArrayList<String>();
+    private int typeChangesStart;
+
+    //Position at the end of the log of type changes; read without locking so readers can cheaply check for changes
+    private volatile int typeChangeCount;
+
+    //Reader -> position up to which it has read the type changes; held weakly so readers need not unregister
+    private final Map<Object, Integer> typeChangeReaders = new WeakHashMap<Object, Integer>();
+
+    //KieFileSystem paths of resources reported as changed but not yet re-read, e.g. awaiting an incremental build
+    private final Set<String> pendingChanges = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+
+    private final AtomicLong incrementalBuildsSkipped = new AtomicLong();
+    private final AtomicLong incrementalBuildsPerformed = new AtomicLong();
 
     public Builder( final Path moduleDirectory,
                     final GAV gav,
@@ -107,28 +177,74 @@ public class Builder {
                     final KieProjectService projectService,
                     final ProjectImportsService importsService,
                     final List<BuildValidationHelper> buildValidationHelpers ) {
+        this( moduleDirectory,
+              gav,
+              ioService,
+              projectService,
+              importsService,
+              buildValidationHelpers,
+              new ExternalClassVerifier() );
+    }
+
+    public Builder( final Path moduleDirectory,
+                    final GAV gav,
+                    final IOService ioService,
+                    final KieProjectService projectService,
+                    final ProjectImportsService importsService,
+                    final List<BuildValidationHelper> buildValidationHelpers,
+                    final ExternalClassVerifier externalClassVerifier ) {
+        this( moduleDirectory,
+              gav,
+              ioService,
+              projectService,
+              importsService,
+              buildValidationHelpers,
+              externalClassVerifier,
+              LOADER );
+    }
+
+    Builder( final Path moduleDirectory,
+             final GAV gav,
+             final IOService ioService,
+             final KieProjectService projectService,
+             final ProjectImportsService importsService,
+             final List<BuildValidationHelper> buildValidationHelpers,
+             final ExternalClassVerifier externalClassVerifier,
+             final ExecutorService loader ) {
         this.moduleDirectory = moduleDirectory;
         this.gav = gav;
         this.ioService = ioService;
         this.projectService = projectService;
         this.importsService = importsService;
         this.buildValidationHelpers = buildValidationHelpers;
+        this.externalClassVerifier = externalClassVerifier;
+        this.loader = loader;
 
         projectPrefix = moduleDirectory.toUri().toString();
         kieServices = KieServices.Factory.get();
         kieFileSystem = kieServices.newKieFileSystem();
 
-        DirectoryStream<org.uberfire.java.nio.file.Path> directoryStream = Files.newDirectoryStream( moduleDirectory );
-        visitPaths( directoryStream );
+        loadResources( false );
     }
 
     public BuildResults build() {
-        synchronized ( kieFileSystem ) {
-            //KieBuilder is not re-usable for successive "full" builds
-            kieBuilder = kieServices.newKieBuilder( kieFileSystem );
+        return build( BuildProgressMonitor.NONE );
+    }
+
+    public BuildResults build( final BuildProgressMonitor monitor ) {
+        checkNotNull( "monitor",
+                      monitor );
+        lock.lock();
+        try {
+            //KieBuilder is not re-usable for successive "full" builds. Readers continue to use the
+            //previous snapshot until this build has completed.
+            final KieBuilder kieBuilder = kieServices.newKieBuilder( kieFileSystem );
+            KieContainer kieContainer = null;
 
             //Record RTEs from KieBuilder - that can fail if a rule uses an inaccessible class
             final BuildResults results = new BuildResults( gav );
+            enterPhase( monitor,
+                        BuildPhase.COMPILING );
             try {
                 final Results kieResults = kieBuilder.buildAll().getResults();
                 for ( final Message message : kieResults.getMessages() ) {
@@ -138,8 +254,6 @@ public class Builder {
                 //It's impossible to retrieve a KieContainer if the KieModule contains errors
                 if ( results.getErrorMessages().isEmpty() ) {
                     kieContainer = kieServices.newKieContainer( kieBuilder.getKieModule().getReleaseId() );
-                } else {
-                    kieContainer = null;
                 }
 
             } catch ( LinkageError e ) {
@@ -154,6 +268,8 @@ public class Builder {
             }
 
             //Add validate messages from external helpers
+            enterPhase( monitor,
+                        BuildPhase.VALIDATION_HELPERS );
             for ( Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet() ) {
                 final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( e.getKey() );
                 final List<ValidationMessage> validationMessages = e.getValue().validate( vfsPath );
@@ -167,6 +283,8 @@ public class Builder {
             }
 
             //Check external imports are available. These are loaded when a DMO is requested, but it's better to report them early
+            enterPhase( monitor,
+                        BuildPhase.IMPORTS_CHECK );
             final org.uberfire.java.nio.file.Path nioExternalImportsPath = moduleDirectory.resolve( "project.imports" );
             if ( Files.exists( nioExternalImportsPath ) ) {
                 final org.uberfire.backend.vfs.Path externalImportsPath = Paths.convert( nioExternalImportsPath );
@@ -188,10 +306,16 @@ public class Builder {
             //At the end we are interested to ensure that external .jar files referenced as dependencies don't have
             // referential inconsistencies. We will at least provide a basic algorithm to ensure that if an external class
             // X references another external class Y, Y is also accessible by the class loader.
-            final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData( ( (InternalKieBuilder) kieBuilder ).getKieModuleIgnoringErrors() );
+            enterPhase( monitor,
+                        BuildPhase.EXTERNAL_CLASS_VERIFICATION );
+            final KieModule kieModuleIgnoringErrors = ( (InternalKieBuilder) kieBuilder ).getKieModuleIgnoringErrors();
+            final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData( kieModuleIgnoringErrors );
+            final List<Class<?>> externalClasses = new ArrayList<Class<?>>();
+            int classes = 0;
             for ( final String packageName : kieModuleMetaData.getPackages() ) {
                 for ( final String className : kieModuleMetaData.getClasses( packageName ) ) {
                     final String fullyQualifiedClassName = packageName + "." + className;
+                    classes++;
                     try {
                         final Class clazz = kieModuleMetaData.getClass( packageName,
                                                                         className );
@@ -199,7 +323,7 @@ public class Builder {
                             final TypeSource typeSource = getClassSource( kieModuleMetaData,
                                                                           clazz );
                             if ( TypeSource.JAVA_DEPENDENCY == typeSource ) {
-                                verifyExternalClass( clazz );
+                                externalClasses.add( clazz );
                             }
                         } else {
                             final String msg = MessageFormat.format( ERROR_EXTERNAL_CLASS_VERIFICATON,
@@ -214,22 +338,43 @@ public class Builder {
                     }
                 }
             }
+            for ( final Map.Entry<Class<?>, Throwable> e : externalClassVerifier.verify( externalClasses ).entrySet() ) {
+                final String msg = MessageFormat.format( ERROR_EXTERNAL_CLASS_VERIFICATON,
+                                                         e.getKey().getName() );
+                logger.warn( msg, e.getValue() );
+                results.addBuildMessage( makeWarningMessage( msg ) );
+            }
+
+            //Publish the completed build for readers, unless the build was cancelled whilst verifying classes
+            checkCancelled( monitor );
+            classCount = classes;
+            publish( new BuildSnapshot( kieBuilder,
+                                        kieModuleIgnoringErrors,
+                                        kieModuleMetaData,
+                                        kieContainer,
+                                        kieContainer != null ) );
 
             return results;
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void verifyExternalClass( Class clazz ) {
-        //don't recommended to instantiate the class doing clazz.newInstance().
-        clazz.getDeclaredConstructors();
-        clazz.getDeclaredFields();
-        clazz.getDeclaredMethods();
-        clazz.getDeclaredClasses();
-        clazz.getDeclaredAnnotations();
+    private void enterPhase( final BuildProgressMonitor monitor,
+                             final BuildPhase phase ) {
+        checkCancelled( monitor );
+        monitor.phase( phase );
+    }
+
+    private void checkCancelled( final BuildProgressMonitor monitor ) {
+        if ( monitor.isCancelled() ) {
+            throw new CancellationException( "Build of " + gav + " was cancelled." );
+        }
     }
 
     public IncrementalBuildResults addResource( final Path resource ) {
-        synchronized ( kieFileSystem ) {
+        lock.lock();
+        try {
             checkNotNull( "resource",
                           resource );
 
@@ -243,6 +388,16 @@ public class Builder {
                 throw new IllegalStateException( "A full build needs to be performed before any incremental operations." );
             }
 
+            //Nothing to do if the content is identical to that already in the KieFileSystem
+            final String destinationPath = resource.toUri().toString().substring( projectPrefix.length() + 1 );
+            pendingChanges.remove( destinationPath );
+            final byte[] content = ioService.readAllBytes( resource );
+            if ( isUnchanged( destinationPath,
+                              content ) ) {
+                incrementalBuildsSkipped.incrementAndGet();
+                return new IncrementalBuildResults( gav );
+            }
+
             //Resource Type might require "external" validation (i.e. it's not covered by Kie)
             final IncrementalBuildResults results = new IncrementalBuildResults( gav );
             final BuildValidationHelper validator = getBuildValidationHelper( resource );
@@ -268,18 +423,16 @@ public class Builder {
             }
 
             //Add new resource
-            final String destinationPath = resource.toUri().toString().substring( projectPrefix.length() + 1 );
-            final InputStream is = ioService.newInputStream( resource );
-            final BufferedInputStream bis = new BufferedInputStream( is );
-            kieFileSystem.write( destinationPath,
-                                 KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
+            writeResource( destinationPath,
+                           content );
             addJavaClass( resource );
             handles.put( getBaseFileName( destinationPath ),
                          Paths.convert( resource ) );
 
             //Incremental build
+            incrementalBuildsPerformed.incrementAndGet();
             try {
-                final IncrementalResults incrementalResults = ( (InternalKieBuilder) kieBuilder ).createFileSet( destinationPath ).build();
+                final IncrementalResults incrementalResults = buildIncrementally( destinationPath );
                 for ( final Message message : incrementalResults.getAddedMessages() ) {
                     results.addAddedMessage( convertMessage( message ) );
                 }
@@ -304,11 +457,14 @@ public class Builder {
             }
 
             return results;
+        } finally {
+            lock.unlock();
         }
     }
 
     public IncrementalBuildResults deleteResource( final Path resource ) {
-        synchronized ( kieFileSystem ) {
+        lock.lock();
+        try {
             checkNotNull( "resource",
                           resource );
             //The file has already been deleted so we can't check if the Path is a file or folder :(
@@ -333,12 +489,14 @@ public class Builder {
 
             //Delete resource
             final String destinationPath = resource.toUri().toString().substring( projectPrefix.length() + 1 );
-            kieFileSystem.delete( destinationPath );
+            pendingChanges.remove( destinationPath );
+            removeResource( destinationPath );
             removeJavaClass( resource );
 
             //Incremental build
+            incrementalBuildsPerformed.incrementAndGet();
             try {
-                final IncrementalResults incrementalResults = ( (InternalKieBuilder) kieBuilder ).createFileSet( destinationPath ).build();
+                final IncrementalResults incrementalResults = buildIncrementally( destinationPath );
                 for ( final Message message : incrementalResults.getAddedMessages() ) {
                     results.addAddedMessage( convertMessage( message ) );
                 }
@@ -363,17 +521,70 @@ public class Builder {
             }
 
             return results;
+        } finally {
+            lock.unlock();
         }
     }
 
     public IncrementalBuildResults updateResource( final Path resource ) {
-        synchronized ( kieFileSystem ) {
-            return addResource( resource );
+        return addResource( resource );
+    }
+
+    /**
+     * Bring the KieFileSystem in line with the Project's resources without re-creating the Builder. Resources
+     * are re-read and only those whose content differs from that already held are written; resources that no
+     * longer exist are removed. A subsequent full build then runs against the reconciled state.
+     * @return The number of resources that were added, updated or removed
+     */
+    public int reconcileResources() {
+        lock.lock();
+        try {
+            final int resourcesBefore = resourceDigests.size();
+            final Map<String, byte[]> digestsBefore = new HashMap<String, byte[]>( resourceDigests );
+            pendingChanges.clear();
+            final Set<String> destinationPaths = loadResources( true );
+
+            int changes = 0;
+            for ( final Map.Entry<String, byte[]> e : resourceDigests.entrySet() ) {
+                final byte[] previous = digestsBefore.get( e.getKey() );
+                if ( previous == null || !MessageDigest.isEqual( previous,
+                                                                 e.getValue() ) ) {
+                    changes++;
+                }
+            }
+
+            //Remove resources that have been deleted since they were loaded
+            final List<String> deletedPaths = new ArrayList<String>( resourceDigests.keySet() );
+            deletedPaths.removeAll( destinationPaths );
+            for ( final String destinationPath : deletedPaths ) {
+                removeResource( destinationPath );
+                final Path resource = moduleDirectory.resolve( destinationPath );
+                removeJavaClass( resource );
+                handles.remove( getBaseFileName( destinationPath ) );
+                changes++;
+            }
+            final Iterator<Path> itr = nonKieResourceValidationHelpers.keySet().iterator();
+            while ( itr.hasNext() ) {
+                final Path resource = itr.next();
+                if ( !destinationPaths.contains( resource.toUri().toString().substring( projectPrefix.length() + 1 ) ) ) {
+                    itr.remove();
+                    nonKieResourceValidationHelperMessages.remove( resource );
+                }
+            }
+
+            logger.debug( "Reconciled {} of {} resources for {}.",
+                          changes,
+                          resourcesBefore,
+                          gav );
+            return changes;
+        } finally {
+            lock.unlock();
         }
     }
 
     public IncrementalBuildResults applyBatchResourceChanges( final Map<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> changes ) {
-        synchronized ( kieFileSystem ) {
+        lock.lock();
+        try {
             checkNotNull( "changes",
                           changes );
 
@@ -396,7 +607,7 @@ public class Builder {
                     checkNotNull( "resource", resource );
 
                     final String destinationPath = resource.toUri().toString().substring( projectPrefix.length() + 1 );
-                    changedFilesKieBuilderPaths.add( destinationPath );
+                    pendingChanges.remove( destinationPath );
                     switch ( type ) {
                         case ADD:
                         case UPDATE:
@@ -405,6 +616,14 @@ public class Builder {
                                 continue;
                             }
 
+                            //Nothing to do if the content is identical to that already in the KieFileSystem
+                            final byte[] content = ioService.readAllBytes( resource );
+                            if ( isUnchanged( destinationPath,
+                                              content ) ) {
+                                continue;
+                            }
+                            changedFilesKieBuilderPaths.add( destinationPath );
+
                             //Resource Type might require "external" validation (i.e. it's not covered by Kie)
                             final BuildValidationHelper validator = getBuildValidationHelper( resource );
                             if ( validator != null ) {
@@ -429,16 +648,16 @@ public class Builder {
                             }
 
                             //Add new resource
-                            final InputStream is = ioService.newInputStream( resource );
-                            final BufferedInputStream bis = new BufferedInputStream( is );
-                            kieFileSystem.write( destinationPath,
-                                                 KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
+                            writeResource( destinationPath,
+                                           content );
                             addJavaClass( resource );
                             handles.put( getBaseFileName( destinationPath ),
                                          Paths.convert( resource ) );
 
                             break;
                         case DELETE:
+                            changedFilesKieBuilderPaths.add( destinationPath );
+
                             //Resource Type might have been validated "externally" (i.e. it's not covered by Kie). Clear any errors.
                             nonKieResourceValidationHelpers.remove( resource );
                             final List<ValidationMessage> removedValidationMessages = nonKieResourceValidationHelperMessages.remove( resource );
@@ -449,13 +668,20 @@ public class Builder {
                             }
 
                             //The file has already been deleted so we can't check if the Path is a file or folder :(
-                            kieFileSystem.delete( destinationPath );
+                            removeResource( destinationPath );
                             removeJavaClass( resource );
                     }
                 }
             }
 
+            //Nothing to build if all changed resources had identical content
+            if ( changedFilesKieBuilderPaths.isEmpty() ) {
+                incrementalBuildsSkipped.incrementAndGet();
+                return new IncrementalBuildResults( gav );
+            }
+
             //Perform the Incremental build
+            incrementalBuildsPerformed.incrementAndGet();
             final String[] kieBuilderPaths = new String[ changedFilesKieBuilderPaths.size() ];
             changedFilesKieBuilderPaths.toArray( kieBuilderPaths );
 
@@ -463,7 +689,7 @@ public class Builder {
 
             final IncrementalBuildResults results = new IncrementalBuildResults( gav );
             try {
-                final IncrementalResults incrementalResults = ( (InternalKieBuilder) kieBuilder ).createFileSet( kieBuilderPaths ).build();
+                final IncrementalResults incrementalResults = buildIncrementally( kieBuilderPaths );
                 for ( final Message message : incrementalResults.getAddedMessages() ) {
                     results.addAddedMessage( convertMessage( message ) );
                 }
@@ -496,72 +722,494 @@ public class Builder {
             }
 
             return results;
+        } finally {
+            lock.unlock();
         }
     }
 
     public KieModule getKieModule() {
         //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            build();
-        }
-        synchronized ( kieFileSystem ) {
-            return kieBuilder.getKieModule();
+        assertBuilt();
+        moduleLock.readLock().lock();
+        try {
+            return snapshot.getKieBuilder().getKieModule();
+        } finally {
+            moduleLock.readLock().unlock();
         }
     }
 
     public KieModule getKieModuleIgnoringErrors() {
         //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            build();
-        }
-        synchronized ( kieFileSystem ) {
-            return ( (InternalKieBuilder) kieBuilder ).getKieModuleIgnoringErrors();
+        assertBuilt();
+        moduleLock.readLock().lock();
+        try {
+            return snapshot.getKieModuleIgnoringErrors();
+        } finally {
+            moduleLock.readLock().unlock();
         }
     }
 
     public KieContainer getKieContainer() {
         //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            build();
+        assertBuilt();
+        moduleLock.readLock().lock();
+        try {
+            return snapshot.getKieContainer();
+        } finally {
+            moduleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Meta-data of the KieModule, shared by all users of the current build so that classes (and the ClassLoader)
+     * are the same for all
+     */
+    public KieModuleMetaData getKieModuleMetaData() {
+        //Kie classes are only available once built
+        assertBuilt();
+        moduleLock.readLock().lock();
+        try {
+            return snapshot.getKieModuleMetaData();
+        } finally {
+            moduleLock.readLock().unlock();
         }
-        return kieContainer;
     }
 
     public boolean isBuilt() {
-        synchronized ( kieFileSystem ) {
-            return kieBuilder != null;
+        return snapshot != null;
+    }
+
+    public GAV getGAV() {
+        return gav;
+    }
+
+    /**
+     * Digest of the content of all resources held by the Builder, including pom.xml and hence its declared dependencies
+     */
+    public String getContentDigest() {
+        lock.lock();
+        try {
+            final MessageDigest contentDigest = MessageDigest.getInstance( "MD5" );
+            for ( final String destinationPath : new TreeSet<String>( resourceDigests.keySet() ) ) {
+                contentDigest.update( destinationPath.getBytes( "UTF-8" ) );
+                contentDigest.update( resourceDigests.get( destinationPath ) );
+            }
+            return new BigInteger( 1,
+                                   contentDigest.digest() ).toString( 16 );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        } catch ( UnsupportedEncodingException e ) {
+            throw new IllegalStateException( e );
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void visitPaths( final DirectoryStream<org.uberfire.java.nio.file.Path> directoryStream ) {
-        for ( final org.uberfire.java.nio.file.Path path : directoryStream ) {
-            if ( Files.isDirectory( path ) ) {
-                visitPaths( Files.newDirectoryStream( path ) );
+    /**
+     * Record that a resource has changed, and that its content held by this Builder is stale until the change is
+     * applied by an incremental build or the Builder is reconciled.
+     * @param resource The resource
+     */
+    public void resourceChanged( final Path resource ) {
+        checkNotNull( "resource",
+                      resource );
+        pendingChanges.add( resource.toUri().toString().substring( projectPrefix.length() + 1 ) );
+    }
 
-            } else {
-                //Don't process dotFiles
-                if ( !dotFileFilter.accept( path ) ) {
+    /**
+     * Whether resources have been reported as changed by resourceChanged() that are yet to be applied
+     */
+    public boolean hasPendingChanges() {
+        return !pendingChanges.isEmpty();
+    }
 
-                    //Resource Type might require "external" validation (i.e. it's not covered by Kie)
-                    final BuildValidationHelper validator = getBuildValidationHelper( path );
-                    if ( validator != null ) {
-                        nonKieResourceValidationHelpers.put( path,
-                                                             validator );
-                    }
+    /**
+     * Apply resources reported as changed by resourceChanged() with an incremental build of their current content,
+     * for example if no incremental build follows the change. Nothing is done if the Builder has not been built, as
+     * its full build reads the current content.
+     * @return The results of the incremental build
+     */
+    public IncrementalBuildResults applyPendingChanges() {
+        lock.lock();
+        try {
+            if ( !isBuilt() || pendingChanges.isEmpty() ) {
+                return new IncrementalBuildResults( gav );
+            }
+            final Map<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> changes = new HashMap<org.uberfire.backend.vfs.Path, Collection<ResourceChange>>();
+            for ( final String destinationPath : pendingChanges ) {
+                final Path resource = moduleDirectory.resolve( destinationPath );
+                final ResourceChange change = Files.exists( resource ) ? new ResourceUpdated() : new ResourceDeleted();
+                changes.put( Paths.convert( resource ),
+                             Collections.singletonList( change ) );
+            }
+            return applyBatchResourceChanges( changes );
+        } finally {
+            lock.unlock();
+        }
+    }
 
-                    //Add new resource
-                    final String destinationPath = path.toUri().toString().substring( projectPrefix.length() + 1 );
-                    final InputStream is = ioService.newInputStream( path );
-                    final BufferedInputStream bis = new BufferedInputStream( is );
-                    kieFileSystem.write( destinationPath,
-                                         KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
-                    handles.put( getBaseFileName( destinationPath ),
-                                 Paths.convert( path ) );
-
-                    //Java classes are handled by KIE so we can safely post-process them here
-                    addJavaClass( path );
+    /**
+     * Copy the Project's resources accepted by a filter into another KieFileSystem. The content already held by this
+     * Builder is shared, rather than re-read, and later changes to either KieFileSystem do not affect the other.
+     * Nothing is copied if the Builder is busy, for example with a full build, or has changes that are yet to be
+     * applied, as the content may be changing or stale.
+     * @param target The KieFileSystem to which resources are copied
+     * @param filter Filter for the Project's resources
+     * @return true if the resources were copied
+     */
+    public boolean copyResources( final KieFileSystem target,
+                                  final DirectoryStream.Filter<Path> filter ) {
+        checkNotNull( "target",
+                      target );
+        checkNotNull( "filter",
+                      filter );
+        if ( !lock.tryLock() ) {
+            return false;
+        }
+        try {
+            if ( !pendingChanges.isEmpty() ) {
+                return false;
+            }
+            for ( final String destinationPath : resourceDigests.keySet() ) {
+                if ( filter.accept( moduleDirectory.resolve( destinationPath ) ) ) {
+                    target.write( destinationPath,
+                                  kieFileSystem.read( destinationPath ) );
                 }
             }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Position in the log of type changes; i.e. the number of changes recorded since the Builder was created. Does
+     * not wait for builds in progress.
+     */
+    public int getTypeChangeCount() {
+        return typeChangeCount;
+    }
+
+    /**
+     * Types changed by incremental builds, or reconciliation, since the given position in the log of type changes.
+     * Java classes are identified by their fully qualified class name; changes to other resources, that may declare
+     * types, are identified by ANY_DECLARED_TYPE.
+     * @param position A position previously returned by getTypeChangeCount()
+     * @return The changed types or null if the changes are no longer known, in which case the reader should start
+     * afresh from the current position
+     */
+    public Set<String> getTypeChangesSince( final int position ) {
+        lock.lock();
+        try {
+            if ( position < typeChangesStart || position > typeChangesStart + typeChanges.size() ) {
+                return null;
+            }
+            return new HashSet<String>( typeChanges.subList( position - typeChangesStart,
+                                                             typeChanges.size() ) );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record that a reader no longer needs the type changes before a position. Changes every reader has
+     * acknowledged are discarded.
+     * @param reader The reader
+     * @param position A position previously returned by getTypeChangeCount()
+     */
+    public void acknowledgeTypeChanges( final Object reader,
+                                        final int position ) {
+        lock.lock();
+        try {
+            typeChangeReaders.put( reader,
+                                   position );
+            int trimTo = position;
+            for ( final Integer p : typeChangeReaders.values() ) {
+                trimTo = Math.min( trimTo,
+                                   p );
+            }
+            trimTypeChanges( trimTo );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void trimTypeChanges( final int position ) {
+        final int trimmed = Math.min( position - typeChangesStart,
+                                      typeChanges.size() );
+        if ( trimmed <= 0 ) {
+            return;
+        }
+        typeChanges.subList( 0,
+                             trimmed ).clear();
+        typeChangesStart = typeChangesStart + trimmed;
+    }
+
+    //KieFileSystem paths of the resources held by the Builder
+    Set<String> getResourcePaths() {
+        lock.lock();
+        try {
+            return new TreeSet<String>( resourceDigests.keySet() );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Handles used to resolve the Paths of build messages, keyed by KieFileSystem path without extension
+    Map<String, org.uberfire.backend.vfs.Path> getHandles() {
+        lock.lock();
+        try {
+            return new HashMap<String, org.uberfire.backend.vfs.Path>( handles );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Resources validated by BuildValidationHelpers rather than by KIE
+    Set<Path> getNonKieResources() {
+        lock.lock();
+        try {
+            return new HashSet<Path>( nonKieResourceValidationHelpers.keySet() );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Number of incremental builds avoided because the content of the changed resources was identical to that already built
+    public long getIncrementalBuildsSkipped() {
+        return incrementalBuildsSkipped.get();
+    }
+
+    public long getIncrementalBuildsPerformed() {
+        return incrementalBuildsPerformed.get();
+    }
+
+    //Estimate of the memory retained by this Builder; the content of all resources plus an allowance per class
+    public long getEstimatedWeight() {
+        return resourceBytes.get() + ( classCount * CLASS_WEIGHT );
+    }
+
+    private void writeResource( final String destinationPath,
+                                final byte[] content ) {
+        writeResource( destinationPath,
+                       content,
+                       digest( content ) );
+    }
+
+    private void writeResource( final String destinationPath,
+                                final byte[] content,
+                                final byte[] digest ) {
+        kieFileSystem.write( destinationPath,
+                             content );
+        resourceDigests.put( destinationPath,
+                             digest );
+        final Integer previousSize = resourceSizes.put( destinationPath,
+                                                        content.length );
+        resourceBytes.addAndGet( content.length - ( previousSize == null ? 0 : previousSize ) );
+    }
+
+    private void removeResource( final String destinationPath ) {
+        kieFileSystem.delete( destinationPath );
+        resourceDigests.remove( destinationPath );
+        final Integer previousSize = resourceSizes.remove( destinationPath );
+        if ( previousSize != null ) {
+            resourceBytes.addAndGet( -previousSize );
+        }
+    }
+
+    private boolean isUnchanged( final String destinationPath,
+                                 final byte[] content ) {
+        return matchesDigest( destinationPath,
+                              digest( content ) );
+    }
+
+    private boolean matchesDigest( final String destinationPath,
+                                   final byte[] digest ) {
+        final byte[] previous = resourceDigests.get( destinationPath );
+        return previous != null && MessageDigest.isEqual( previous,
+                                                          digest );
+    }
+
+    private byte[] digest( final byte[] content ) {
+        try {
+            return MessageDigest.getInstance( "MD5" ).digest( content );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    //Incremental builds update the KieModule held by the KieBuilder in place, so readers are held back until it
+    //has been re-published. Its meta-data and KieContainer are re-created on demand from the updated KieModule.
+    private IncrementalResults buildIncrementally( final String... paths ) {
+        moduleLock.writeLock().lock();
+        try {
+            final BuildSnapshot current = snapshot;
+            final IncrementalResults incrementalResults = ( (InternalKieBuilder) current.getKieBuilder() ).createFileSet( paths ).build();
+            publish( new BuildSnapshot( current.getKieBuilder(),
+                                        ( (InternalKieBuilder) current.getKieBuilder() ).getKieModuleIgnoringErrors(),
+                                        null,
+                                        null,
+                                        current.isKieContainerAvailable() ) );
+            return incrementalResults;
+        } finally {
+            moduleLock.writeLock().unlock();
+        }
+    }
+
+    //Expressions compiled against the ClassLoader of the previous build are no longer needed
+    private void publish( final BuildSnapshot newSnapshot ) {
+        final BuildSnapshot previous = snapshot;
+        snapshot = newSnapshot;
+        invalidateExpressions( previous );
+    }
+
+    /**
+     * Release state held for this Builder by shared caches, so that they do not retain its ClassLoader. Called when
+     * the Builder is discarded; it remains usable, but its expressions will have to be compiled again.
+     */
+    public void discard() {
+        invalidateExpressions( snapshot );
+    }
+
+    private void invalidateExpressions( final BuildSnapshot snapshot ) {
+        if ( snapshot != null && snapshot.hasKieModuleMetaData() ) {
+            EnumExpressionCache.getInstance().invalidate( snapshot.getKieModuleMetaData().getClassLoader() );
+        }
+    }
+
+    //Reads are served from the last completed build without acquiring the lock. The lock is only
+    //taken if no build has ever completed, in which case the caller has to wait for the first one.
+    private void assertBuilt() {
+        if ( snapshot != null ) {
+            return;
+        }
+        lock.lock();
+        try {
+            if ( snapshot == null ) {
+                build();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Directories are listed and files read on the loader pool. Tasks never wait on each other; the calling
+    //thread collects their results and is the only thread to update the KieFileSystem and Builder's state.
+    //When reconciling, resources whose digest matches that already in the KieFileSystem are left untouched.
+    //Returns the KieFileSystem paths of all resources that were found.
+    private Set<String> loadResources( final boolean reconcile ) {
+        final Set<String> destinationPaths = new HashSet<String>();
+        final CompletionService<ResourceLoaderResult> completionService = new ExecutorCompletionService<ResourceLoaderResult>( loader );
+        completionService.submit( new DirectoryLoader( moduleDirectory ) );
+        int pending = 1;
+        while ( pending > 0 ) {
+            final ResourceLoaderResult result = takeResult( completionService );
+            pending--;
+            for ( final Path path : result.getDirectories() ) {
+                completionService.submit( new DirectoryLoader( path ) );
+                pending++;
+            }
+            for ( final Path path : result.getFiles() ) {
+                completionService.submit( new FileLoader( path ) );
+                pending++;
+            }
+            final LoadedResource resource = result.getResource();
+            if ( resource != null ) {
+                destinationPaths.add( resource.getDestinationPath() );
+                if ( reconcile && matchesDigest( resource.getDestinationPath(),
+                                                 resource.getDigest() ) ) {
+                    continue;
+                }
+                addLoadedResource( resource,
+                                   reconcile );
+            }
+        }
+        return destinationPaths;
+    }
+
+    private ResourceLoaderResult takeResult( final CompletionService<ResourceLoaderResult> completionService ) {
+        try {
+            return completionService.take().get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( e );
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException( e.getCause() );
+        }
+    }
+
+    private void addLoadedResource( final LoadedResource resource,
+                                    final boolean recordTypeChange ) {
+        //Resource Type might require "external" validation (i.e. it's not covered by Kie)
+        if ( resource.getValidator() != null ) {
+            nonKieResourceValidationHelpers.put( resource.getPath(),
+                                                 resource.getValidator() );
+        }
+
+        //Add new resource
+        writeResource( resource.getDestinationPath(),
+                       resource.getContent(),
+                       resource.getDigest() );
+        handles.put( getBaseFileName( resource.getDestinationPath() ),
+                     Paths.convert( resource.getPath() ) );
+
+        //Java classes are handled by KIE so we can safely post-process them here
+        if ( resource.getFullyQualifiedClassName() != null ) {
+            javaResources.add( resource.getFullyQualifiedClassName() );
+        }
+        if ( recordTypeChange ) {
+            recordTypeChange( resource.getFullyQualifiedClassName() != null ? resource.getFullyQualifiedClassName() : ANY_DECLARED_TYPE );
+        }
+    }
+
+    private class DirectoryLoader implements Callable<ResourceLoaderResult> {
+
+        private final Path directory;
+
+        private DirectoryLoader( final Path directory ) {
+            this.directory = directory;
+        }
+
+        @Override
+        public ResourceLoaderResult call() {
+            final ResourceLoaderResult result = new ResourceLoaderResult();
+            for ( final Path path : Files.newDirectoryStream( directory ) ) {
+                if ( Files.isDirectory( path ) ) {
+                    result.getDirectories().add( path );
+
+                } else if ( !dotFileFilter.accept( path ) ) {
+                    //Don't process dotFiles
+                    result.getFiles().add( path );
+                }
+            }
+            return result;
+        }
+    }
+
+    private class FileLoader implements Callable<ResourceLoaderResult> {
+
+        private final Path path;
+
+        private FileLoader( final Path path ) {
+            this.path = path;
+        }
+
+        @Override
+        public ResourceLoaderResult call() {
+            final String destinationPath = path.toUri().toString().substring( projectPrefix.length() + 1 );
+            final byte[] content = ioService.readAllBytes( path );
+            final String fullyQualifiedClassName = javaResourceFilter.accept( path ) ? getFullyQualifiedClassName( path ) : null;
+            final ResourceLoaderResult result = new ResourceLoaderResult();
+            result.setResource( new LoadedResource( path,
+                                                    destinationPath,
+                                                    content,
+                                                    digest( content ),
+                                                    getBuildValidationHelper( path ),
+                                                    fullyQualifiedClassName ) );
+            return result;
         }
     }
 
@@ -625,23 +1273,38 @@ public class Builder {
         return buildMessage;
     }
 
+    //Called for every resource changed after the Builder was created, so it also records the change
     private void addJavaClass( final Path path ) {
         if ( !javaResourceFilter.accept( path ) ) {
+            recordTypeChange( ANY_DECLARED_TYPE );
             return;
         }
         final String fullyQualifiedClassName = getFullyQualifiedClassName( path );
         if ( fullyQualifiedClassName != null ) {
             javaResources.add( fullyQualifiedClassName );
+            recordTypeChange( fullyQualifiedClassName );
         }
     }
 
+    //Called for every resource removed after the Builder was created, so it also records the change
     private void removeJavaClass( final Path path ) {
         if ( !javaResourceFilter.accept( path ) ) {
+            recordTypeChange( ANY_DECLARED_TYPE );
             return;
         }
         final String fullyQualifiedClassName = getFullyQualifiedClassName( path );
         if ( fullyQualifiedClassName != null ) {
             javaResources.remove( fullyQualifiedClassName );
+            recordTypeChange( fullyQualifiedClassName );
+        }
+    }
+
+    //If too many changes are retained the oldest are discarded; readers still behind them start afresh
+    private void recordTypeChange( final String type ) {
+        typeChanges.add( type );
+        typeChangeCount++;
+        if ( typeChanges.size() > MAX_TYPE_CHANGES ) {
+            trimTypeChanges( typeChangesStart + typeChanges.size() - MAX_TYPE_CHANGES );
         }
     }
 
@@ -697,4 +1360,150 @@ public class Builder {
                                path.lastIndexOf( "." ) );
     }
 
+    private static class ResourceLoaderResult {
+
+        private final List<Path> directories = new ArrayList<Path>();
+        private final List<Path> files = new ArrayList<Path>();
+        private LoadedResource resource;
+
+        private List<Path> getDirectories() {
+            return directories;
+        }
+
+        private List<Path> getFiles() {
+            return files;
+        }
+
+        private LoadedResource getResource() {
+            return resource;
+        }
+
+        private void setResource( final LoadedResource resource ) {
+            this.resource = resource;
+        }
+
+    }
+
+    private static class LoadedResource {
+
+        private final Path path;
+        private final String destinationPath;
+        private final byte[] content;
+        private final byte[] digest;
+        private final BuildValidationHelper validator;
+        private final String fullyQualifiedClassName;
+
+        private LoadedResource( final Path path,
+                                final String destinationPath,
+                                final byte[] content,
+                                final byte[] digest,
+                                final BuildValidationHelper validator,
+                                final String fullyQualifiedClassName ) {
+            this.path = path;
+            this.destinationPath = destinationPath;
+            this.content = content;
+            this.digest = digest;
+            this.validator = validator;
+            this.fullyQualifiedClassName = fullyQualifiedClassName;
+        }
+
+        private Path getPath() {
+            return path;
+        }
+
+        private String getDestinationPath() {
+            return destinationPath;
+        }
+
+        private byte[] getContent() {
+            return content;
+        }
+
+        private byte[] getDigest() {
+            return digest;
+        }
+
+        private BuildValidationHelper getValidator() {
+            return validator;
+        }
+
+        private String getFullyQualifiedClassName() {
+            return fullyQualifiedClassName;
+        }
+
+    }
+
+    private static class BuildSnapshot {
+
+        private final KieBuilder kieBuilder;
+        private final KieModule kieModuleIgnoringErrors;
+
+        //KieContainers are only created for KieModules that built without errors
+        private final boolean kieContainerAvailable;
+
+        //Created on demand following incremental builds
+        private volatile KieModuleMetaData kieModuleMetaData;
+        private volatile KieContainer kieContainer;
+
+        private BuildSnapshot( final KieBuilder kieBuilder,
+                               final KieModule kieModuleIgnoringErrors,
+                               final KieModuleMetaData kieModuleMetaData,
+                               final KieContainer kieContainer,
+                               final boolean kieContainerAvailable ) {
+            this.kieBuilder = kieBuilder;
+            this.kieModuleIgnoringErrors = kieModuleIgnoringErrors;
+            this.kieModuleMetaData = kieModuleMetaData;
+            this.kieContainer = kieContainer;
+            this.kieContainerAvailable = kieContainerAvailable;
+        }
+
+        private boolean hasKieModuleMetaData() {
+            return kieModuleMetaData != null;
+        }
+
+        private KieModuleMetaData getKieModuleMetaData() {
+            KieModuleMetaData metaData = kieModuleMetaData;
+            if ( metaData == null ) {
+                synchronized ( this ) {
+                    metaData = kieModuleMetaData;
+                    if ( metaData == null ) {
+                        metaData = KieModuleMetaData.Factory.newKieModuleMetaData( kieModuleIgnoringErrors );
+                        kieModuleMetaData = metaData;
+                    }
+                }
+            }
+            return metaData;
+        }
+
+        private KieBuilder getKieBuilder() {
+            return kieBuilder;
+        }
+
+        private KieModule getKieModuleIgnoringErrors() {
+            return kieModuleIgnoringErrors;
+        }
+
+        private boolean isKieContainerAvailable() {
+            return kieContainerAvailable;
+        }
+
+        private KieContainer getKieContainer() {
+            if ( !kieContainerAvailable ) {
+                return null;
+            }
+            KieContainer container = kieContainer;
+            if ( container == null ) {
+                synchronized ( this ) {
+                    container = kieContainer;
+                    if ( container == null ) {
+                        container = KieServices.Factory.get().newKieContainer( kieModuleIgnoringErrors.getReleaseId() );
+                        kieContainer = container;
+                    }
+                }
+            }
+            return container;
+        }
+
+    }
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ThreadFactory for the pools used by the builder services; threads are named and never prevent shutdown
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public DaemonThreadFactory( final String prefix ) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread( final Runnable runnable ) {
+        final Thread thread = new Thread( runnable,
+                                          prefix + "-" + count.incrementAndGet() );
+        thread.setDaemon( true );
+        return thread;
+    }
+
+}
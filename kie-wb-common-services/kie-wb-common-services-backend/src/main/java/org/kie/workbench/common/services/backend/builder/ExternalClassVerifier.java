@@ -0,0 +1,346 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies that classes from external dependencies can be fully resolved by their class loader. Successful
+ * verifications are remembered per dependency artifact (its location in the Maven repository, which identifies
+ * the GAV, and a checksum of the jar) and the set of dependencies available to the class loader, as whether a
+ * class resolves depends on both. They are therefore shared between builds, and between Projects with the same
+ * dependencies; only classes from new or changed artifacts, or with different dependencies, are verified again.
+ * Verification runs in parallel across classes. Results are held for a bounded number of keys, the least recently
+ * used being discarded first.
+ */
+@ApplicationScoped
+public class ExternalClassVerifier {
+
+    public static final String THREADS_PROPERTY = "org.kie.workbench.builder.verifier.threads";
+
+    public static final String MAX_ENTRIES_PROPERTY = "org.kie.workbench.builder.verifier.max-entries";
+
+    private static final Logger logger = LoggerFactory.getLogger( ExternalClassVerifier.class );
+
+    private static final ExecutorService VERIFIER = Executors.newFixedThreadPool( Integer.getInteger( THREADS_PROPERTY,
+                                                                                                      Runtime.getRuntime().availableProcessors() ),
+                                                                                  new DaemonThreadFactory( "builder-class-verifier" ) );
+
+    private final int maxEntries = Integer.getInteger( MAX_ENTRIES_PROPERTY,
+                                                       1000 );
+
+    //Verification key -> names of classes successfully verified within the artifact; guarded by its own lock
+    private final Map<String, Set<String>> verifiedClasses = new LinkedHashMap<String, Set<String>>( 16,
+                                                                                                     0.75f,
+                                                                                                     true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, Set<String>> eldest ) {
+            return size() > maxEntries;
+        }
+    };
+
+    //Artifact location -> checksum; recalculated only if the jar's size or modification time changes
+    private final Map<String, ArtifactChecksum> checksums = new ConcurrentHashMap<String, ArtifactChecksum>();
+
+    //ClassLoader -> digest of the dependencies available to it; held weakly so as not to retain Projects' ClassLoaders
+    private final Map<ClassLoader, String> dependencySets = new WeakHashMap<ClassLoader, String>();
+
+    /**
+     * Verify classes
+     * @param classes Classes to verify
+     * @return Classes that failed verification, in the order they were provided, with the cause of the failure
+     */
+    public Map<Class<?>, Throwable> verify( final Collection<Class<?>> classes ) {
+        final List<Class<?>> unverified = new ArrayList<Class<?>>();
+        final List<Future<Throwable>> futures = new ArrayList<Future<Throwable>>();
+        for ( final Class<?> clazz : classes ) {
+            final String verificationKey = getVerificationKey( clazz );
+            if ( verificationKey != null && isVerified( verificationKey,
+                                                        clazz ) ) {
+                continue;
+            }
+            unverified.add( clazz );
+            futures.add( VERIFIER.submit( new Callable<Throwable>() {
+                @Override
+                public Throwable call() {
+                    try {
+                        verifyClass( clazz );
+                        if ( verificationKey != null ) {
+                            setVerified( verificationKey,
+                                         clazz );
+                        }
+                        return null;
+                    } catch ( Throwable t ) {
+                        return t;
+                    }
+                }
+            } ) );
+        }
+
+        final Map<Class<?>, Throwable> failures = new LinkedHashMap<Class<?>, Throwable>();
+        for ( int i = 0; i < futures.size(); i++ ) {
+            final Throwable failure = getResult( futures.get( i ) );
+            if ( failure != null ) {
+                failures.put( unverified.get( i ),
+                              failure );
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Forget all verification results
+     */
+    public void clear() {
+        synchronized ( verifiedClasses ) {
+            verifiedClasses.clear();
+        }
+        checksums.clear();
+        synchronized ( dependencySets ) {
+            dependencySets.clear();
+        }
+    }
+
+    protected void verifyClass( final Class<?> clazz ) {
+        //don't recommended to instantiate the class doing clazz.newInstance().
+        clazz.getDeclaredConstructors();
+        clazz.getDeclaredFields();
+        clazz.getDeclaredMethods();
+        clazz.getDeclaredClasses();
+        clazz.getDeclaredAnnotations();
+    }
+
+    private Throwable getResult( final Future<Throwable> future ) {
+        try {
+            return future.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch ( ExecutionException e ) {
+            return e.getCause();
+        }
+    }
+
+    private boolean isVerified( final String verificationKey,
+                                final Class<?> clazz ) {
+        final Set<String> classNames;
+        synchronized ( verifiedClasses ) {
+            classNames = verifiedClasses.get( verificationKey );
+        }
+        return classNames != null && classNames.contains( clazz.getName() );
+    }
+
+    private void setVerified( final String verificationKey,
+                              final Class<?> clazz ) {
+        Set<String> classNames;
+        synchronized ( verifiedClasses ) {
+            classNames = verifiedClasses.get( verificationKey );
+            if ( classNames == null ) {
+                classNames = Collections.newSetFromMap( new ConcurrentHashMap<String, Boolean>() );
+                verifiedClasses.put( verificationKey,
+                                     classNames );
+            }
+        }
+        classNames.add( clazz.getName() );
+    }
+
+    /**
+     * Key identifying the artifact from which a class was loaded; its location in the Maven repository and a
+     * checksum of the jar
+     * @param clazz Class
+     * @return The key, or null if the class was not loaded from a jar on the file system (e.g. it was compiled
+     * from the Project itself)
+     */
+    public String getArtifactKey( final Class<?> clazz ) {
+        final ProtectionDomain protectionDomain = clazz.getProtectionDomain();
+        if ( protectionDomain == null ) {
+            return null;
+        }
+        final CodeSource codeSource = protectionDomain.getCodeSource();
+        if ( codeSource == null || codeSource.getLocation() == null ) {
+            return null;
+        }
+        final URL location = codeSource.getLocation();
+        if ( !"file".equals( location.getProtocol() ) ) {
+            return null;
+        }
+        final File jar;
+        try {
+            jar = new File( location.toURI() );
+        } catch ( URISyntaxException e ) {
+            return null;
+        }
+        if ( !jar.isFile() ) {
+            return null;
+        }
+        final String checksum = getChecksum( jar );
+        if ( checksum == null ) {
+            return null;
+        }
+        return location.toExternalForm() + "#" + checksum;
+    }
+
+    /**
+     * Key under which the verification of a class is remembered; the key of the artifact from which the class was
+     * loaded and a digest of the dependencies available to its class loader
+     * @param clazz Class
+     * @return The key, or null if the class was not loaded from a jar on the file system
+     */
+    public String getVerificationKey( final Class<?> clazz ) {
+        final String artifactKey = getArtifactKey( clazz );
+        if ( artifactKey == null ) {
+            return null;
+        }
+        return artifactKey + "|" + getDependencySet( clazz.getClassLoader() );
+    }
+
+    //The URLs of the URLClassLoaders in the hierarchy, in no particular order. Other ClassLoaders are identified by
+    //instance, as what they can resolve is unknown; classes loaded through them are only shared with the same instance.
+    private String getDependencySet( final ClassLoader classLoader ) {
+        synchronized ( dependencySets ) {
+            final String cached = dependencySets.get( classLoader );
+            if ( cached != null ) {
+                return cached;
+            }
+        }
+        final List<String> loaders = new ArrayList<String>();
+        for ( ClassLoader cl = classLoader; cl != null; cl = cl.getParent() ) {
+            if ( cl instanceof URLClassLoader ) {
+                final Set<String> urls = new TreeSet<String>();
+                for ( URL url : ( (URLClassLoader) cl ).getURLs() ) {
+                    urls.add( url.toExternalForm() );
+                }
+                loaders.add( urls.toString() );
+            } else {
+                loaders.add( cl.getClass().getName() + "@" + System.identityHashCode( cl ) );
+            }
+        }
+        final String dependencySet;
+        try {
+            final MessageDigest digest = MessageDigest.getInstance( "MD5" );
+            digest.update( loaders.toString().getBytes( "UTF-8" ) );
+            dependencySet = new BigInteger( 1,
+                                            digest.digest() ).toString( 16 );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        } catch ( UnsupportedEncodingException e ) {
+            throw new IllegalStateException( e );
+        }
+        if ( classLoader != null ) {
+            synchronized ( dependencySets ) {
+                dependencySets.put( classLoader,
+                                    dependencySet );
+            }
+        }
+        return dependencySet;
+    }
+
+    private String getChecksum( final File jar ) {
+        final String location = jar.getAbsolutePath();
+        final ArtifactChecksum cached = checksums.get( location );
+        if ( cached != null && cached.matches( jar ) ) {
+            return cached.getChecksum();
+        }
+        InputStream is = null;
+        try {
+            final MessageDigest digest = MessageDigest.getInstance( "MD5" );
+            is = new BufferedInputStream( new FileInputStream( jar ) );
+            final byte[] buffer = new byte[ 8192 ];
+            int read;
+            while ( ( read = is.read( buffer ) ) != -1 ) {
+                digest.update( buffer,
+                               0,
+                               read );
+            }
+            final String checksum = new BigInteger( 1,
+                                                    digest.digest() ).toString( 16 );
+            checksums.put( location,
+                           new ArtifactChecksum( jar,
+                                                 checksum ) );
+            return checksum;
+        } catch ( IOException e ) {
+            logger.warn( e.getMessage(),
+                         e );
+            return null;
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        } finally {
+            if ( is != null ) {
+                try {
+                    is.close();
+                } catch ( IOException e ) {
+                    //Swallow
+                }
+            }
+        }
+    }
+
+    private static class ArtifactChecksum {
+
+        private final long length;
+        private final long lastModified;
+        private final String checksum;
+
+        private ArtifactChecksum( final File jar,
+                                  final String checksum ) {
+            this.length = jar.length();
+            this.lastModified = jar.lastModified();
+            this.checksum = checksum;
+        }
+
+        private boolean matches( final File jar ) {
+            return length == jar.length() && lastModified == jar.lastModified();
+        }
+
+        private String getChecksum() {
+            return checksum;
+        }
+
+    }
+
+}
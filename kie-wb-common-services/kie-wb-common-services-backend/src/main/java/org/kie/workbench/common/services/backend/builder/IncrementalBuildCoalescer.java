@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.model.Project;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * Merges incremental build requests for the same Project that arrive within a configurable window into a
+ * single call to Builder.applyBatchResourceChanges(). The first request for a Project schedules the batch to be
+ * applied once the window has elapsed; every request in the batch receives the merged results. The batch is applied
+ * to the Builder cached for the Project at that time, so changes are not lost if the Builder was replaced during
+ * the window; if that Builder has not been built the batch is left to its full build, which reads the changes.
+ * The window defaults to 100ms; a window of zero applies each change immediately.
+ */
+public class IncrementalBuildCoalescer {
+
+    public static final String WINDOW_PROPERTY = "org.kie.workbench.build.incremental.coalesce-window";
+
+    public static final String THREADS_PROPERTY = "org.kie.workbench.build.incremental.coalesce-threads";
+
+    private static final long DEFAULT_WINDOW = 100;
+
+    private final long window;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final LRUBuilderCache cache;
+
+    private final Map<Project, Batch> pending = new HashMap<Project, Batch>();
+
+    public IncrementalBuildCoalescer( final LRUBuilderCache cache ) {
+        this( Long.getLong( WINDOW_PROPERTY,
+                            DEFAULT_WINDOW ),
+              Executors.newScheduledThreadPool( Integer.getInteger( THREADS_PROPERTY,
+                                                                    2 ),
+                                                new DaemonThreadFactory( "incremental-build-coalescer" ) ),
+              cache );
+    }
+
+    public IncrementalBuildCoalescer( final long window,
+                                      final ScheduledExecutorService scheduler,
+                                      final LRUBuilderCache cache ) {
+        this.window = window;
+        this.scheduler = checkNotNull( "scheduler",
+                                       scheduler );
+        this.cache = checkNotNull( "cache",
+                                   cache );
+    }
+
+    public boolean isEnabled() {
+        return window > 0;
+    }
+
+    /**
+     * Add a change to the Project's current batch, and wait for the batch to be applied
+     * @return The results of the batch
+     */
+    public IncrementalBuildResults submit( final Project project,
+                                           final Path resource,
+                                           final ResourceChangeType type ) throws InterruptedException {
+        try {
+            return enqueue( project,
+                            resource,
+                            type ).get();
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error ) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException( e.getCause() );
+        }
+    }
+
+    /**
+     * Add a change to the Project's current batch without waiting for it to be applied
+     * @return The results of the batch, once it has been applied
+     */
+    Future<IncrementalBuildResults> enqueue( final Project project,
+                                             final Path resource,
+                                             final ResourceChangeType type ) {
+        checkNotNull( "project",
+                      project );
+        checkNotNull( "resource",
+                      resource );
+        checkNotNull( "type",
+                      type );
+
+        synchronized ( pending ) {
+            Batch batch = pending.get( project );
+            if ( batch == null ) {
+                batch = new Batch( project );
+                pending.put( project,
+                             batch );
+                scheduler.schedule( batch.task,
+                                    window,
+                                    TimeUnit.MILLISECONDS );
+            }
+            batch.merge( resource,
+                         type );
+            return batch.task;
+        }
+    }
+
+    private class Batch {
+
+        //Guarded by the pending map's lock
+        private final Map<Path, ResourceChangeType> changes = new LinkedHashMap<Path, ResourceChangeType>();
+
+        private final FutureTask<IncrementalBuildResults> task;
+
+        private Batch( final Project project ) {
+            task = new FutureTask<IncrementalBuildResults>( new Callable<IncrementalBuildResults>() {
+                @Override
+                public IncrementalBuildResults call() throws Exception {
+                    return apply( project );
+                }
+            } );
+        }
+
+        //Builder handles ADD and UPDATE identically, so the latest change for a Path wins. An UPDATE
+        //following an ADD remains an ADD as the resource is still new to the Builder.
+        private void merge( final Path resource,
+                            final ResourceChangeType type ) {
+            final ResourceChangeType previous = changes.get( resource );
+            if ( previous == ResourceChangeType.ADD && type == ResourceChangeType.UPDATE ) {
+                return;
+            }
+            changes.put( resource,
+                         type );
+        }
+
+        private IncrementalBuildResults apply( final Project project ) {
+            //Close the batch; subsequent requests start a new one
+            final Map<Path, Collection<ResourceChange>> batch = new LinkedHashMap<Path, Collection<ResourceChange>>();
+            synchronized ( pending ) {
+                pending.remove( project );
+                for ( Map.Entry<Path, ResourceChangeType> e : changes.entrySet() ) {
+                    batch.put( e.getKey(),
+                               Collections.singletonList( makeResourceChange( e.getValue() ) ) );
+                }
+            }
+            //A replacement Builder that has not been built reads the changed resources when it is
+            final Builder builder = cache.assertBuilder( project );
+            if ( !builder.isBuilt() ) {
+                return new IncrementalBuildResults();
+            }
+            return builder.applyBatchResourceChanges( batch );
+        }
+
+        private ResourceChange makeResourceChange( final ResourceChangeType type ) {
+            switch ( type ) {
+                case ADD:
+                    return new ResourceAdded();
+                case DELETE:
+                    return new ResourceDeleted();
+                default:
+                    return new ResourceUpdated();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * Writes the content of a KieModule as a jar, one entry at a time. Unlike InternalKieModule.getBytes() the
+ * jar is never held in memory as a whole, so the heap required to deploy a KieModule does not grow with the
+ * size of the KieModule.
+ */
+public class KieModuleJarWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Write the KieModule to a temporary file. The caller is responsible for deleting the file.
+     * @param kieModule KieModule to write
+     * @return The jar file
+     * @throws IOException
+     */
+    public File writeToTempFile( final InternalKieModule kieModule ) throws IOException {
+        checkNotNull( "kieModule",
+                      kieModule );
+        final File jar = File.createTempFile( "kie-module-",
+                                              ".jar" );
+        OutputStream os = null;
+        try {
+            os = new FileOutputStream( jar );
+            write( kieModule,
+                   os );
+        } catch ( IOException e ) {
+            jar.delete();
+            throw e;
+        } catch ( RuntimeException e ) {
+            jar.delete();
+            throw e;
+        } finally {
+            if ( os != null ) {
+                try {
+                    os.close();
+                } catch ( IOException e ) {
+                    //Swallow
+                }
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * Write the KieModule to an OutputStream. The OutputStream is not closed.
+     * @param kieModule KieModule to write
+     * @param os Destination
+     * @throws IOException
+     */
+    public void write( final InternalKieModule kieModule,
+                       final OutputStream os ) throws IOException {
+        checkNotNull( "kieModule",
+                      kieModule );
+        checkNotNull( "os",
+                      os );
+        //Sorted so folders precede their content, as with InternalKieModule.getBytes()
+        final Set<String> fileNames = new TreeSet<String>( kieModule.getFileNames() );
+        final Set<String> folders = new HashSet<String>();
+        final ZipOutputStream zos = new ZipOutputStream( new BufferedOutputStream( os,
+                                                                                   BUFFER_SIZE ) );
+        for ( final String fileName : fileNames ) {
+            writeFolders( fileName,
+                          folders,
+                          zos );
+            final byte[] content = kieModule.getBytes( fileName );
+            if ( content == null ) {
+                continue;
+            }
+            zos.putNextEntry( new ZipEntry( fileName ) );
+            zos.write( content );
+            zos.closeEntry();
+        }
+        zos.finish();
+        zos.flush();
+    }
+
+    private void writeFolders( final String fileName,
+                               final Set<String> folders,
+                               final ZipOutputStream zos ) throws IOException {
+        int index = fileName.indexOf( '/' );
+        while ( index > 0 ) {
+            final String folder = fileName.substring( 0,
+                                                      index + 1 );
+            if ( folders.add( folder ) ) {
+                zos.putNextEntry( new ZipEntry( folder ) );
+                zos.closeEntry();
+            }
+            index = fileName.indexOf( '/',
+                                      index + 1 );
+        }
+    }
+
+}
@@ -16,8 +16,11 @@
 package org.kie.workbench.common.services.backend.builder;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -32,19 +35,60 @@ import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.POM;
 import org.guvnor.common.services.project.model.Project;
 import org.guvnor.common.services.project.service.POMService;
+import org.kie.workbench.common.services.backend.cache.InFlightComputations;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.commons.validation.PortablePreconditions;
 import org.uberfire.io.IOService;
 
 /**
- * A simple LRU cache for Builders
+ * A simple LRU cache for Builders. By default the number of Builders is bounded. If a maximum weight is configured
+ * Builders are also evicted, least recently used first, once the total of their estimated retained sizes exceeds it.
+ * If a maximum idle time is configured Builders not accessed within that time are evicted.
  */
 @ApplicationScoped
 public class LRUBuilderCache extends LRUCache<Project, Builder> {
 
+    public static final String MAX_WEIGHT_PROPERTY = "org.kie.workbench.builder.cache.max-weight";
+
+    public static final String MAX_IDLE_PROPERTY = "org.kie.workbench.builder.cache.max-idle";
+
+    private static final Logger logger = LoggerFactory.getLogger( LRUBuilderCache.class );
+
+    private long maxWeight = Long.getLong( MAX_WEIGHT_PROPERTY,
+                                           0 );
+
+    private long maxIdle = Long.getLong( MAX_IDLE_PROPERTY,
+                                         0 );
+
+    //Builders and their last access time, tracked separately to avoid disturbing the LRU order when weighing entries
+    private final Map<Project, Builder> builders = new HashMap<Project, Builder>();
+    private final Map<Project, Long> lastAccess = new HashMap<Project, Long>();
+
+    private final InFlightComputations<Project, Builder> computations = new InFlightComputations<Project, Builder>( this ) {
+        @Override
+        protected Builder compute( final Project project ) {
+            return makeBuilder( project );
+        }
+
+        @Override
+        protected void publish( final Project project,
+                                final Builder builder ) {
+            setEntry( project,
+                      builder );
+            touch( project,
+                   builder );
+        }
+    };
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
     @Inject
     private POMService pomService;
 
@@ -62,6 +106,9 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
     @Any
     private Instance<BuildValidationHelper> anyValidators;
 
+    @Inject
+    private ExternalClassVerifier externalClassVerifier;
+
     private final List<BuildValidationHelper> validators = new ArrayList<BuildValidationHelper>();
 
     @PostConstruct
@@ -78,27 +125,176 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
         final Project project = event.getProject();
 
         //If resource was not within a Project there's nothing to invalidate
-        if ( project != null ) {
-            invalidateCache( project );
+        if ( project == null ) {
+            return;
+        }
+
+        //Incremental builds apply changes to Java classes to a built Builder, and record them for consumers such as
+        //the DataModelOracle caches, so it is kept. Builders that have not been built receive no incremental builds.
+        final Path resourcePath = event.getResourcePath();
+        if ( resourcePath != null && resourcePath.getFileName().endsWith( ".java" ) ) {
+            final Builder builder = getCachedBuilder( project );
+            if ( builder != null && builder.isBuilt() ) {
+                builder.resourceChanged( Paths.convert( resourcePath ) );
+                return;
+            }
         }
+        invalidateCache( project );
+        computations.invalidate( project );
+        discard( project );
     }
 
-    public synchronized Builder assertBuilder( final Project project ) {
-        Builder builder = getEntry( project );
-        if ( builder == null ) {
-            final Path pathToPom = project.getPomXMLPath();
-            final POM pom = pomService.load( pathToPom );
-            builder = new Builder( Paths.convert( project.getRootPath() ),
-                                   pom.getGav(),
-                                   ioService,
-                                   projectService,
-                                   importsService,
-                                   validators );
+    //Builders are created without holding the cache's lock, so creating one does not delay requests for other Projects
+    public Builder assertBuilder( final Project project ) {
+        synchronized ( this ) {
+            evictIdleEntries();
+            final Builder builder = getEntry( project );
+            if ( builder != null ) {
+                hits++;
+                touch( project,
+                       builder );
+                return builder;
+            }
+        }
+        return computations.get( project );
+    }
 
-            setEntry( project,
-                      builder );
+    //Another request may have published a Builder between this request missing the cache and starting to compute
+    private Builder makeBuilder( final Project project ) {
+        synchronized ( this ) {
+            final Builder builder = getEntry( project );
+            if ( builder != null ) {
+                hits++;
+                return builder;
+            }
+            misses++;
+        }
+        final Path pathToPom = project.getPomXMLPath();
+        final POM pom = pomService.load( pathToPom );
+        return new Builder( Paths.convert( project.getRootPath() ),
+                            pom.getGav(),
+                            ioService,
+                            projectService,
+                            importsService,
+                            validators,
+                            externalClassVerifier );
+    }
+
+    //Builders that have left the cache since the last access, e.g. evicted as the least recently used, are discarded
+    private void touch( final Project project,
+                        final Builder builder ) {
+        final Collection<Project> keys = getKeys();
+        for ( final Project cached : new ArrayList<Project>( builders.keySet() ) ) {
+            if ( !keys.contains( cached ) ) {
+                discard( cached );
+            }
+        }
+        final Builder previous = builders.put( project,
+                                               builder );
+        if ( previous != null && previous != builder ) {
+            previous.discard();
+        }
+        lastAccess.put( project,
+                        System.currentTimeMillis() );
+        evictOverweightEntries( project );
+    }
+
+    /**
+     * The cached Builder for a Project, if any. A Builder is never created and the LRU order is not disturbed.
+     * @param project
+     * @return The Builder, or null if none is cached
+     */
+    public synchronized Builder getCachedBuilder( final Project project ) {
+        return getKeys().contains( project ) ? builders.get( project ) : null;
+    }
+
+    public synchronized void setMaxWeight( final long maxWeight ) {
+        this.maxWeight = maxWeight;
+    }
+
+    public synchronized void setMaxIdle( final long maxIdle ) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Estimated retained size of the cached Builder for a Project
+     * @param project
+     * @return The weight, or zero if no Builder is cached for the Project
+     */
+    public synchronized long getWeight( final Project project ) {
+        final Builder builder = getCachedBuilder( project );
+        return builder == null ? 0 : builder.getEstimatedWeight();
+    }
+
+    public synchronized long getTotalWeight() {
+        long total = 0;
+        for ( final Project project : builders.keySet() ) {
+            total = total + getWeight( project );
+        }
+        return total;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void evictIdleEntries() {
+        if ( maxIdle <= 0 ) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        for ( final Project project : new ArrayList<Project>( getKeys() ) ) {
+            final Long accessed = lastAccess.get( project );
+            if ( accessed != null && now - accessed > maxIdle ) {
+                evict( project );
+            }
+        }
+    }
+
+    //Evict the least recently accessed Builders until within budget. The Builder just requested is never evicted.
+    private void evictOverweightEntries( final Project current ) {
+        if ( maxWeight <= 0 ) {
+            return;
+        }
+        long total = getTotalWeight();
+        while ( total > maxWeight ) {
+            Project eldest = null;
+            for ( final Map.Entry<Project, Long> e : lastAccess.entrySet() ) {
+                if ( !e.getKey().equals( current ) && ( eldest == null || e.getValue() < lastAccess.get( eldest ) ) ) {
+                    eldest = e.getKey();
+                }
+            }
+            if ( eldest == null ) {
+                return;
+            }
+            total = total - getWeight( eldest );
+            evict( eldest );
+        }
+    }
+
+    private void evict( final Project project ) {
+        logger.debug( "Evicting Builder for Project {}.",
+                      project.getProjectName() );
+        invalidateCache( project );
+        discard( project );
+        evictions++;
+    }
+
+    //Stop tracking a Builder no longer in the cache and release what shared caches hold for it
+    private void discard( final Project project ) {
+        final Builder builder = builders.remove( project );
+        lastAccess.remove( project );
+        if ( builder != null ) {
+            builder.discard();
         }
-        return builder;
     }
 
 }
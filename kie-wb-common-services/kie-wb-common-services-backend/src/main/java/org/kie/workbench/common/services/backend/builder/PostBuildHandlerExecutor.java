@@ -0,0 +1,276 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.service.PostBuildHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * Runs PostBuildHandlers concurrently on a dedicated pool. By default the caller waits for all handlers to
+ * complete, or for their timeout to elapse (in which case the handler is interrupted). Each handler's timeout
+ * starts when it starts running; a handler still queued after the timeout is left to run in the background.
+ * Handlers can instead be run fully asynchronously, in which case the caller returns as soon as they have been
+ * submitted. The time taken by each handler is recorded.
+ * <p>
+ * Handlers on the pool run without the CDI request and session contexts of the caller. Handlers that need them can
+ * be run in turn on the caller's thread, without a timeout, by setting the caller-thread property.
+ */
+public class PostBuildHandlerExecutor {
+
+    public static final String THREADS_PROPERTY = "org.kie.workbench.build.post-build-handlers.threads";
+
+    public static final String TIMEOUT_PROPERTY = "org.kie.workbench.build.post-build-handlers.timeout";
+
+    public static final String ASYNC_PROPERTY = "org.kie.workbench.build.post-build-handlers.async";
+
+    public static final String CALLER_THREAD_PROPERTY = "org.kie.workbench.build.post-build-handlers.caller-thread";
+
+    private static final Logger logger = LoggerFactory.getLogger( PostBuildHandlerExecutor.class );
+
+    private static final ExecutorService HANDLERS = Executors.newFixedThreadPool( Integer.getInteger( THREADS_PROPERTY,
+                                                                                                      Runtime.getRuntime().availableProcessors() ),
+                                                                                  new DaemonThreadFactory( "post-build-handler" ) );
+
+    private final long timeout;
+    private final boolean async;
+    private final boolean callerThread;
+
+    //Handler class name -> timings
+    private final Map<String, HandlerTiming> timings = new ConcurrentHashMap<String, HandlerTiming>();
+
+    public PostBuildHandlerExecutor() {
+        this( Long.getLong( TIMEOUT_PROPERTY,
+                            30000 ),
+              Boolean.getBoolean( ASYNC_PROPERTY ),
+              Boolean.getBoolean( CALLER_THREAD_PROPERTY ) );
+    }
+
+    public PostBuildHandlerExecutor( final long timeout,
+                                     final boolean async ) {
+        this( timeout,
+              async,
+              false );
+    }
+
+    public PostBuildHandlerExecutor( final long timeout,
+                                     final boolean async,
+                                     final boolean callerThread ) {
+        this.timeout = timeout;
+        this.async = async;
+        this.callerThread = callerThread;
+    }
+
+    public void execute( final Iterable<PostBuildHandler> handlers,
+                         final BuildResults results ) {
+        checkNotNull( "handlers",
+                      handlers );
+        if ( callerThread && !async ) {
+            for ( final PostBuildHandler handler : handlers ) {
+                process( handler,
+                         results );
+            }
+            return;
+        }
+
+        final List<HandlerTask> tasks = new ArrayList<HandlerTask>();
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        for ( final PostBuildHandler handler : handlers ) {
+            final HandlerTask task = new HandlerTask( handler,
+                                                      results );
+            tasks.add( task );
+            futures.add( HANDLERS.submit( task ) );
+        }
+        if ( async ) {
+            return;
+        }
+
+        for ( int i = 0; i < futures.size(); i++ ) {
+            try {
+                await( tasks.get( i ),
+                       futures.get( i ) );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch ( ExecutionException e ) {
+                //Failures are logged by the handler's task
+            }
+        }
+    }
+
+    //Handlers may queue behind others on the pool, so each is allowed the timeout from when it starts running. Waiting
+    //for a handler that has not started is limited to the timeout, after which it is left to run in the background.
+    private void await( final HandlerTask task,
+                        final Future<?> future ) throws InterruptedException, ExecutionException {
+        final long waitingSince = System.currentTimeMillis();
+        while ( true ) {
+            final long started = task.getStarted();
+            final long expiry = ( started == 0 ? waitingSince : started ) + timeout;
+            final long remaining = expiry - System.currentTimeMillis();
+            if ( remaining <= 0 ) {
+                if ( started == 0 ) {
+                    logger.warn( "PostBuildHandler {} did not start within {}ms and will complete in the background",
+                                 task.getHandler(),
+                                 timeout );
+                } else {
+                    future.cancel( true );
+                    getTiming( task.getHandler() ).timeouts.incrementAndGet();
+                    logger.warn( "PostBuildHandler {} did not complete within {}ms and was interrupted",
+                                 task.getHandler(),
+                                 timeout );
+                }
+                return;
+            }
+            try {
+                future.get( remaining,
+                            TimeUnit.MILLISECONDS );
+                return;
+            } catch ( TimeoutException e ) {
+                //Check whether the handler has started since, which extends its expiry
+            }
+        }
+    }
+
+    /**
+     * Timings of PostBuildHandlers, keyed by handler class name
+     */
+    public Map<String, HandlerTiming> getTimings() {
+        return Collections.unmodifiableMap( new HashMap<String, HandlerTiming>( timings ) );
+    }
+
+    private void process( final PostBuildHandler handler,
+                          final BuildResults results ) {
+        final HandlerTiming timing = getTiming( handler );
+        final long start = System.currentTimeMillis();
+        try {
+            handler.process( results );
+        } catch ( Exception e ) {
+            timing.failures.incrementAndGet();
+            logger.warn( "PostBuildHandler {} failed due to {}", handler, e.getMessage() );
+        } finally {
+            final long elapsed = System.currentTimeMillis() - start;
+            timing.record( elapsed );
+            logger.debug( "PostBuildHandler {} completed in {}ms",
+                          handler,
+                          elapsed );
+        }
+    }
+
+    private class HandlerTask implements Runnable {
+
+        private final PostBuildHandler handler;
+        private final BuildResults results;
+
+        //When the handler started running, or zero if it is still queued
+        private volatile long started;
+
+        private HandlerTask( final PostBuildHandler handler,
+                             final BuildResults results ) {
+            this.handler = handler;
+            this.results = results;
+        }
+
+        @Override
+        public void run() {
+            started = System.currentTimeMillis();
+            process( handler,
+                     results );
+        }
+
+        private PostBuildHandler getHandler() {
+            return handler;
+        }
+
+        private long getStarted() {
+            return started;
+        }
+
+    }
+
+    private HandlerTiming getTiming( final PostBuildHandler handler ) {
+        final String key = handler.getClass().getName();
+        HandlerTiming timing = timings.get( key );
+        if ( timing == null ) {
+            synchronized ( timings ) {
+                timing = timings.get( key );
+                if ( timing == null ) {
+                    timing = new HandlerTiming();
+                    timings.put( key,
+                                 timing );
+                }
+            }
+        }
+        return timing;
+    }
+
+    public static class HandlerTiming {
+
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private void record( final long elapsed ) {
+            invocations.incrementAndGet();
+            totalTime.addAndGet( elapsed );
+            long max = maxTime.get();
+            while ( elapsed > max && !maxTime.compareAndSet( max,
+                                                             elapsed ) ) {
+                max = maxTime.get();
+            }
+        }
+
+        public long getInvocations() {
+            return invocations.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getTimeouts() {
+            return timeouts.get();
+        }
+
+        public long getTotalTime() {
+            return totalTime.get();
+        }
+
+        public long getMaxTime() {
+            return maxTime.get();
+        }
+
+    }
+
+}
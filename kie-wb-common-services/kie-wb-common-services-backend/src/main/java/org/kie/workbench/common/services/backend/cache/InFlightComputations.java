@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * Computations of cache entries, at most one in progress per key. The first request for a key computes the value in
+ * the requesting thread; concurrent requests for the same key wait for, and share, its result. Requests for other
+ * keys never wait. Once computed the value is published to the cache, holding the cache's lock, unless the key was
+ * invalidated in the meantime.
+ * @param <K> Key
+ * @param <V> Value
+ */
+public abstract class InFlightComputations<K, V> {
+
+    private final ConcurrentMap<K, FutureTask<V>> computations = new ConcurrentHashMap<K, FutureTask<V>>();
+
+    private final Object lock;
+
+    /**
+     * @param lock The lock guarding the cache to which values are published, and with which it invalidates keys
+     */
+    protected InFlightComputations( final Object lock ) {
+        this.lock = checkNotNull( "lock",
+                                  lock );
+    }
+
+    /**
+     * Compute the value for a key, or wait for the computation already in progress
+     * @param key The key
+     * @return The value
+     */
+    public V get( final K key ) {
+        final FutureTask<V> task = new FutureTask<V>( new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                return compute( key );
+            }
+        } );
+        FutureTask<V> computation = computations.putIfAbsent( key,
+                                                              task );
+        if ( computation == null ) {
+            computation = task;
+            try {
+                task.run();
+                final V value = getValue( task );
+                synchronized ( lock ) {
+                    if ( computations.get( key ) == task ) {
+                        publish( key,
+                                 value );
+                    }
+                }
+            } finally {
+                computations.remove( key,
+                                     task );
+            }
+        }
+        return getValue( computation );
+    }
+
+    /**
+     * Forget any computation in progress for a key; its value is not published and later requests start afresh.
+     * Should be called holding the cache's lock.
+     * @param key The key
+     */
+    public void invalidate( final K key ) {
+        computations.remove( key );
+    }
+
+    public void invalidateAll() {
+        computations.clear();
+    }
+
+    /**
+     * Compute the value for a key. Called without holding the cache's lock.
+     * @param key The key
+     * @return The value
+     */
+    protected abstract V compute( final K key );
+
+    /**
+     * Store a computed value in the cache. Called holding the cache's lock.
+     * @param key The key
+     * @param value The value
+     */
+    protected abstract void publish( final K key,
+                                     final V value );
+
+    private V getValue( final FutureTask<V> computation ) {
+        try {
+            return computation.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( e );
+        } catch ( ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error ) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException( e.getCause() );
+        }
+    }
+
+}
@@ -16,7 +16,6 @@
 
 package org.kie.workbench.common.services.backend.enums;
 
-import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,15 +25,11 @@ import javax.inject.Inject;
 import org.drools.core.util.MVELSafeHelper;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.jboss.errai.bus.server.annotations.Service;
-import org.kie.api.builder.KieModule;
-import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.builder.Builder;
 import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
 import org.kie.workbench.common.services.shared.enums.EnumDropdownService;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
-import org.mvel2.MVEL;
-import org.mvel2.ParserConfiguration;
-import org.mvel2.ParserContext;
 import org.mvel2.templates.TemplateRuntime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +47,8 @@ public class EnumDropdownServiceImpl implements EnumDropdownService {
     @Inject
     private KieProjectService projectService;
 
+    private final EnumExpressionCache expressionCache = EnumExpressionCache.getInstance();
+
     @Override
     public String[] loadDropDownExpression( final Path resource,
                                             final String[] valuePairs,
@@ -63,12 +60,13 @@ public class EnumDropdownServiceImpl implements EnumDropdownService {
             logger.error( "A Project could not be resolved for path '" + resource.toURI() + "'. No enums will be returned." );
             return null;
         }
-        final KieModule module = builderCache.assertBuilder( project ).getKieModuleIgnoringErrors();
-        if ( module == null ) {
+        final Builder builder = builderCache.assertBuilder( project );
+        if ( builder.getKieModuleIgnoringErrors() == null ) {
             logger.error( "A KieModule could not be resolved for path '" + resource.toURI() + "'. No enums will be returned." );
             return null;
         }
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData( module ).getClassLoader();
+        //The ClassLoader is shared by all requests for the same build, so compiled expressions can be re-used
+        final ClassLoader classLoader = builder.getKieModuleMetaData().getClassLoader();
 
         return loadDropDownExpression( classLoader,
                                        valuePairs,
@@ -100,13 +98,8 @@ public class EnumDropdownServiceImpl implements EnumDropdownService {
                                                         context );
 
             // now we can eval it for real...
-            final ParserConfiguration pconf = new ParserConfiguration();
-            final ParserContext pctx = new ParserContext( pconf );
-            pconf.setClassLoader( classLoader );
-
-            final Serializable compiled = MVEL.compileExpression( expression,
-                                                                  pctx );
-            Object result = MVELSafeHelper.getEvaluator().executeExpression( compiled,
+            Object result = MVELSafeHelper.getEvaluator().executeExpression( expressionCache.compile( expression,
+                                                                                                     classLoader ),
                                                                              new HashMap<String, Object>() );
 
             //Handle result of evaluation
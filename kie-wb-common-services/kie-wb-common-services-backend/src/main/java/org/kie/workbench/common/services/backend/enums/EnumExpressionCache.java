@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.enums;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.drools.core.util.MVELSafeHelper;
+import org.mvel2.MVEL;
+import org.mvel2.ParserConfiguration;
+import org.mvel2.ParserContext;
+
+/**
+ * A bounded cache of MVEL expressions used to define enumerations, compiled against a ClassLoader, and of the
+ * values of static expressions (those whose value depends only upon their text). Entries are keyed by the text of
+ * the expression and the identity of the ClassLoader; they are discarded when the ClassLoader is invalidated, or
+ * when evicted as the least recently used. Compiled expressions refer to classes of their ClassLoader, so holding
+ * the ClassLoader weakly would not release it; owners of a ClassLoader must invalidate it once it is discarded.
+ */
+public class EnumExpressionCache {
+
+    public static final String MAX_ENTRIES_PROPERTY = "org.kie.workbench.enums.expressions.max-entries";
+
+    private static final EnumExpressionCache INSTANCE = new EnumExpressionCache( Integer.getInteger( MAX_ENTRIES_PROPERTY,
+                                                                                                      1000 ) );
+
+    private final Map<Key, Serializable> compiledExpressions;
+    private final Map<Key, Object> values;
+
+    public static EnumExpressionCache getInstance() {
+        return INSTANCE;
+    }
+
+    public EnumExpressionCache( final int maxEntries ) {
+        this.compiledExpressions = makeMap( maxEntries );
+        this.values = makeMap( maxEntries );
+    }
+
+    /**
+     * Compile an expression
+     * @param expression MVEL expression
+     * @param classLoader ClassLoader against which to compile the expression
+     * @return The compiled expression
+     */
+    public Serializable compile( final String expression,
+                                 final ClassLoader classLoader ) {
+        final Key key = new Key( expression,
+                                 classLoader );
+        synchronized ( this ) {
+            final Serializable compiled = compiledExpressions.get( key );
+            if ( compiled != null ) {
+                return compiled;
+            }
+        }
+
+        final ParserConfiguration pconf = new ParserConfiguration();
+        final ParserContext pctx = new ParserContext( pconf );
+        pconf.setClassLoader( classLoader );
+        final Serializable compiled = MVEL.compileExpression( expression,
+                                                              pctx );
+        synchronized ( this ) {
+            compiledExpressions.put( key,
+                                     compiled );
+        }
+        return compiled;
+    }
+
+    /**
+     * Evaluate an expression whose value depends only upon its text, and not upon the state of any class it uses.
+     * The value is shared and must not be modified.
+     * @param expression MVEL expression
+     * @param classLoader ClassLoader against which to compile the expression
+     * @return The value of the expression
+     */
+    public Object evaluateStatic( final String expression,
+                                  final ClassLoader classLoader ) {
+        final Key key = new Key( expression,
+                                 classLoader );
+        synchronized ( this ) {
+            if ( values.containsKey( key ) ) {
+                return values.get( key );
+            }
+        }
+
+        final Object value = MVELSafeHelper.getEvaluator().executeExpression( compile( expression,
+                                                                                       classLoader ),
+                                                                              new HashMap<String, Object>() );
+        synchronized ( this ) {
+            values.put( key,
+                        value );
+        }
+        return value;
+    }
+
+    /**
+     * Discard all entries for a ClassLoader, such as one for a Project that has since been re-built
+     * @param classLoader The ClassLoader
+     */
+    public synchronized void invalidate( final ClassLoader classLoader ) {
+        invalidate( compiledExpressions,
+                    classLoader );
+        invalidate( values,
+                    classLoader );
+    }
+
+    public synchronized void clear() {
+        compiledExpressions.clear();
+        values.clear();
+    }
+
+    public synchronized int size() {
+        return compiledExpressions.size() + values.size();
+    }
+
+    private void invalidate( final Map<Key, ?> entries,
+                             final ClassLoader classLoader ) {
+        final Iterator<Key> itr = entries.keySet().iterator();
+        while ( itr.hasNext() ) {
+            if ( itr.next().classLoader == classLoader ) {
+                itr.remove();
+            }
+        }
+    }
+
+    private static <V> Map<Key, V> makeMap( final int maxEntries ) {
+        return new LinkedHashMap<Key, V>( 16,
+                                          0.75f,
+                                          true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<Key, V> eldest ) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static class Key {
+
+        private final String expression;
+        private final ClassLoader classLoader;
+
+        private Key( final String expression,
+                     final ClassLoader classLoader ) {
+            this.expression = expression;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof Key ) ) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return classLoader == key.classLoader && expression.equals( key.expression );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * expression.hashCode() + System.identityHashCode( classLoader );
+        }
+
+    }
+
+}
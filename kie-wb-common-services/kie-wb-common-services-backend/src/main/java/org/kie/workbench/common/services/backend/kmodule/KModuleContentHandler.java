@@ -16,8 +16,16 @@
 
 package org.kie.workbench.common.services.backend.kmodule;
 
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.DomDriver;
+import com.thoughtworks.xstream.io.xml.StaxDriver;
 import org.kie.workbench.common.services.backend.kmodule.converters.ClockTypeConverter;
 import org.kie.workbench.common.services.backend.kmodule.converters.KBaseConverter;
 import org.kie.workbench.common.services.backend.kmodule.converters.KModuleConverter;
@@ -33,14 +41,89 @@ import org.kie.workbench.common.services.shared.kmodule.ListenerModel;
 import org.kie.workbench.common.services.shared.kmodule.QualifierModel;
 import org.guvnor.common.services.project.model.WorkItemHandlerModel;
 
+/**
+ * Converts between kmodule.xml and KModuleModel. A single XStream, that is thread-safe once configured, is shared by
+ * all conversions. Models parsed from a path are cached with a digest of their XML and re-used whilst it is unchanged.
+ * Setting the system property {@link #STAX_PARSER_PROPERTY} parses XML with StAX rather than building a DOM.
+ */
 public class KModuleContentHandler {
 
+    public static final String STAX_PARSER_PROPERTY = "org.kie.workbench.kmodule.stax-parser";
+
+    public static final String MAX_MODELS_PROPERTY = "org.kie.workbench.kmodule.cache.max-models";
+
+    private final XStream xStream = createXStream();
+
+    private final StaxDriver staxDriver = Boolean.getBoolean( STAX_PARSER_PROPERTY ) ? new StaxDriver() : null;
+
+    private final int maxModels = Integer.getInteger( MAX_MODELS_PROPERTY,
+                                                      100 );
+
+    //Path -> Model, and the digest of the XML from which it was parsed
+    private final Map<String, CachedModel> models = new LinkedHashMap<String, CachedModel>( 16,
+                                                                                            0.75f,
+                                                                                            true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, CachedModel> eldest ) {
+            return size() > maxModels;
+        }
+    };
+
     public KModuleModel toModel(String xml) {
-        return (KModuleModel) createXStream().fromXML(xml);
+        if ( staxDriver != null ) {
+            return (KModuleModel) xStream.unmarshal( staxDriver.createReader( new StringReader( xml ) ) );
+        }
+        return (KModuleModel) xStream.fromXML(xml);
+    }
+
+    /**
+     * Convert the XML read from a path, re-using the model last parsed from the path if the XML is unchanged. The
+     * model may therefore be shared with other callers and should not be modified other than to be saved.
+     * @param path The path, used as the cache key
+     * @param xml The XML read from the path
+     * @return The model
+     */
+    public KModuleModel toModel(String path,
+                                String xml) {
+        final byte[] digest = digest( xml );
+        synchronized ( models ) {
+            final CachedModel cached = models.get( path );
+            if ( cached != null && MessageDigest.isEqual( cached.digest,
+                                                          digest ) ) {
+                return cached.model;
+            }
+        }
+        final KModuleModel model = toModel( xml );
+        synchronized ( models ) {
+            models.put( path,
+                        new CachedModel( digest,
+                                         model ) );
+        }
+        return model;
     }
 
     public String toString(KModuleModel model) {
-        return createXStream().toXML(model);
+        return xStream.toXML(model);
+    }
+
+    /**
+     * Discard the model parsed from a path
+     * @param path The path
+     */
+    public void invalidate(String path) {
+        synchronized ( models ) {
+            models.remove( path );
+        }
+    }
+
+    private byte[] digest( final String xml ) {
+        try {
+            return MessageDigest.getInstance( "MD5" ).digest( xml.getBytes( "UTF-8" ) );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        } catch ( UnsupportedEncodingException e ) {
+            throw new IllegalStateException( e );
+        }
     }
 
     private XStream createXStream() {
@@ -64,4 +147,17 @@ public class KModuleContentHandler {
 
         return xStream;
     }
+
+    private static class CachedModel {
+
+        private final byte[] digest;
+        private final KModuleModel model;
+
+        private CachedModel( final byte[] digest,
+                             final KModuleModel model ) {
+            this.digest = digest;
+            this.model = model;
+        }
+
+    }
 }
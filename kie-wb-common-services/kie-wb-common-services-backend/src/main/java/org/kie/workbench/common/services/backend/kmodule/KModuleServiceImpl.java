@@ -127,7 +127,8 @@ public class KModuleServiceImpl
             final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
             final String content = ioService.readAllString( nioPath );
 
-            return moduleContentHandler.toModel( content );
+            return moduleContentHandler.toModel( path.toURI(),
+                                                 content );
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
@@ -151,6 +152,9 @@ public class KModuleServiceImpl
                                                          metadata ) );
             }
 
+            //The model may have been modified, so is not re-used even if the saved XML is unchanged
+            moduleContentHandler.invalidate( path.toURI() );
+
             //The pom.xml, kmodule.xml and project.imports are all saved from ProjectScreenPresenter
             //We only raise InvalidateDMOProjectCacheEvent and ResourceUpdatedEvent(pom.xml) events once
             //in POMService.save to avoid duplicating events (and re-construction of DMO).
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.project;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.guvnor.common.services.project.model.Package;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Resolutions of folders to the root of the Project, and to the Package, containing them. All files in a folder
+ * resolve as the folder itself, so resolutions are keyed by the URI of the folder and shared by its files. Entries are
+ * also ordered by URI, so that those for a folder and everything beneath it can be discarded together. Only
+ * successful resolutions are cached. When the maximum number of folders is exceeded the least recently used is
+ * discarded. Resolutions are put with the generation of the cache read before resolving; they are ignored if
+ * anything was invalidated in the meantime, as they may reflect the content prior to the invalidation.
+ */
+public class ProjectResolutionCache {
+
+    public static final String MAX_ENTRIES_PROPERTY = "org.kie.workbench.project.resolution-cache.max-entries";
+
+    private final int maxEntries;
+
+    //Folder URI -> resolutions, in order of access; guarded by this
+    private final Map<String, Resolutions> resolutions = new LinkedHashMap<String, Resolutions>( 16,
+                                                                                                 0.75f,
+                                                                                                 true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, Resolutions> eldest ) {
+            if ( size() > maxEntries ) {
+                folders.remove( eldest.getKey() );
+                return true;
+            }
+            return false;
+        }
+    };
+
+    //Folder URI -> resolutions, ordered by URI; guarded by this
+    private final TreeMap<String, Resolutions> folders = new TreeMap<String, Resolutions>();
+
+    //Incremented whenever resolutions are invalidated; guarded by this
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ProjectResolutionCache() {
+        this( Integer.getInteger( MAX_ENTRIES_PROPERTY,
+                                  10000 ) );
+    }
+
+    public ProjectResolutionCache( final int maxEntries ) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The generation of the cache, to be read before resolving a folder and passed when putting the resolution
+     * @return The generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized Path getProjectRoot( final String folderUri ) {
+        final Resolutions r = resolutions.get( folderUri );
+        return count( r == null ? null : r.projectRoot );
+    }
+
+    public synchronized void putProjectRoot( final String folderUri,
+                                             final Path projectRoot,
+                                             final long generation ) {
+        final Resolutions r = getResolutions( folderUri,
+                                              generation );
+        if ( r != null ) {
+            r.projectRoot = projectRoot;
+        }
+    }
+
+    public synchronized Package getPackage( final String folderUri ) {
+        final Resolutions r = resolutions.get( folderUri );
+        return count( r == null ? null : r.pkg );
+    }
+
+    public synchronized void putPackage( final String folderUri,
+                                         final Package pkg,
+                                         final long generation ) {
+        final Resolutions r = getResolutions( folderUri,
+                                              generation );
+        if ( r != null ) {
+            r.pkg = pkg;
+        }
+    }
+
+    /**
+     * Discard resolutions of a folder and everything beneath it. Siblings whose name starts with that of the
+     * folder are unaffected.
+     * @param uri URI of the folder, or of a file in which case nothing beneath it is cached
+     */
+    public synchronized void invalidate( final String uri ) {
+        generation++;
+        final List<String> beneath = new ArrayList<String>( folders.subMap( uri + "/",
+                                                                            true,
+                                                                            uri + "/" + Character.MAX_VALUE,
+                                                                            true ).keySet() );
+        beneath.add( uri );
+        for ( String key : beneath ) {
+            folders.remove( key );
+            resolutions.remove( key );
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        resolutions.clear();
+        folders.clear();
+    }
+
+    public synchronized int size() {
+        return resolutions.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Proportion of look-ups that were resolved from the cache
+     * @return The ratio, or zero if there have been no look-ups
+     */
+    public double getHitRatio() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private <T> T count( final T value ) {
+        if ( value == null ) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    //Resolutions of the folder, or null if the cache has been invalidated since the given generation
+    private Resolutions getResolutions( final String folderUri,
+                                        final long generation ) {
+        if ( generation != this.generation ) {
+            return null;
+        }
+        Resolutions r = resolutions.get( folderUri );
+        if ( r == null ) {
+            r = new Resolutions();
+            folders.put( folderUri,
+                         r );
+            resolutions.put( folderUri,
+                             r );
+        }
+        return r;
+    }
+
+    private static class Resolutions {
+
+        private Path projectRoot;
+        private Package pkg;
+
+    }
+
+}
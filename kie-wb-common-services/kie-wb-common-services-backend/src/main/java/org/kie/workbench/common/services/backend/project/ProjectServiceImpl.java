@@ -18,6 +18,7 @@ package org.kie.workbench.common.services.backend.project;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -52,6 +53,11 @@ import org.uberfire.java.nio.file.FileAlreadyExistsException;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Files;
 import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
 
 @Service
 @ApplicationScoped
@@ -66,6 +72,8 @@ public class ProjectServiceImpl
     @Inject
     private KModuleService kModuleService;
 
+    private final ProjectResolutionCache resolutionCache = new ProjectResolutionCache();
+
     public ProjectServiceImpl() {
     }
 
@@ -244,39 +252,58 @@ public class ProjectServiceImpl
                 return null;
             }
 
-            //Check if resource is the project root
-            org.uberfire.java.nio.file.Path path = Paths.convert( resource ).normalize();
-
-            //A project root is the folder containing the pom.xml file. This will be the parent of the "src" folder
-            if ( Files.isRegularFile( path ) ) {
-                path = path.getParent();
-            }
-            if ( hasPom( path ) && hasKModule( path ) ) {
-                return makeProject( path );
-            }
-            while ( path.getNameCount() > 0 && !path.getFileName().toString().equals( SOURCE_FILENAME ) ) {
-                path = path.getParent();
-            }
-            if ( path.getNameCount() == 0 ) {
-                return null;
+            //Projects are made afresh from a cached root, so their security roles are current
+            final long generation = resolutionCache.getGeneration();
+            final String folderUri = getFolderUri( resource );
+            final org.uberfire.java.nio.file.Path projectRoot = resolutionCache.getProjectRoot( folderUri );
+            if ( projectRoot != null ) {
+                return makeProject( projectRoot );
             }
-            path = path.getParent();
-            if ( path.getNameCount() == 0 || path == null ) {
-                return null;
-            }
-            if ( !hasPom( path ) ) {
-                return null;
-            }
-            if ( !hasKModule( path ) ) {
+
+            final org.uberfire.java.nio.file.Path resolvedRoot = resolveProjectRoot( resource );
+            if ( resolvedRoot == null ) {
                 return null;
             }
-            return makeProject( path );
+            resolutionCache.putProjectRoot( folderUri,
+                                            resolvedRoot,
+                                            generation );
+            return makeProject( resolvedRoot );
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
         }
     }
 
+    private org.uberfire.java.nio.file.Path resolveProjectRoot( final Path resource ) {
+        //Check if resource is the project root
+        org.uberfire.java.nio.file.Path path = Paths.convert( resource ).normalize();
+
+        //A project root is the folder containing the pom.xml file. This will be the parent of the "src" folder
+        if ( Files.isRegularFile( path ) ) {
+            path = path.getParent();
+        }
+        if ( hasPom( path ) && hasKModule( path ) ) {
+            return path;
+        }
+        while ( path.getNameCount() > 0 && !path.getFileName().toString().equals( SOURCE_FILENAME ) ) {
+            path = path.getParent();
+        }
+        if ( path.getNameCount() == 0 ) {
+            return null;
+        }
+        path = path.getParent();
+        if ( path.getNameCount() == 0 || path == null ) {
+            return null;
+        }
+        if ( !hasPom( path ) ) {
+            return null;
+        }
+        if ( !hasKModule( path ) ) {
+            return null;
+        }
+        return path;
+    }
+
     @Override
     protected KieProject makeProject( final org.uberfire.java.nio.file.Path nioProjectRootPath ) {
         final KieProject project = simpleProjectInstance( nioProjectRootPath );
@@ -294,25 +321,107 @@ public class ProjectServiceImpl
                 return null;
             }
 
+            //pom.xml and kmodule.xml are not inside packages, although other files in their folders are
+            if ( isPom( resource ) || isKModuleFile( resource ) ) {
+                return null;
+            }
+
+            final long generation = resolutionCache.getGeneration();
+            final String folderUri = getFolderUri( resource );
+            final Package cachedPackage = resolutionCache.getPackage( folderUri );
+            if ( cachedPackage != null ) {
+                return cachedPackage;
+            }
+
             //If Path is not within a Project we cannot resolve a package
             final Project project = resolveProject( resource );
             if ( project == null ) {
                 return null;
             }
 
-            //pom.xml and kmodule.xml are not inside packages
-            if ( isPom( resource ) || kModuleService.isKModule( resource ) ) {
-                return null;
+            final Package pkg = makePackage( project,
+                                             resource );
+            if ( pkg != null ) {
+                resolutionCache.putPackage( folderUri,
+                                            pkg,
+                                            generation );
             }
-
-            return makePackage( project,
-                                resource );
+            return pkg;
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
         }
     }
 
+    //Files resolve to the same Project and Package as the folder containing them
+    private String getFolderUri( final Path resource ) {
+        final org.uberfire.java.nio.file.Path path = Paths.convert( resource ).normalize();
+        if ( Files.isRegularFile( path ) ) {
+            return Paths.convert( path.getParent() ).toURI();
+        }
+        return Paths.convert( path ).toURI();
+    }
+
+    /**
+     * Metrics of the cache of Project and Package resolutions
+     * @return The cache
+     */
+    public ProjectResolutionCache getResolutionCache() {
+        return resolutionCache;
+    }
+
+    public void onNewProject( @Observes final NewProjectEvent event ) {
+        resolutionCache.clear();
+    }
+
+    public void onDeleteProject( @Observes final DeleteProjectEvent event ) {
+        resolutionCache.clear();
+    }
+
+    public void onRenameProject( @Observes final RenameProjectEvent event ) {
+        resolutionCache.clear();
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidateResolutions( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidateResolutions( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidateResolutions( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidateResolutions( event.getPath() );
+        invalidateResolutions( event.getDestinationPath() );
+    }
+
+    public void onResourceBatchChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( final Path path : event.getBatch().keySet() ) {
+            invalidateResolutions( path );
+        }
+    }
+
+    //A change to a pom.xml or kmodule.xml can change the Project of any resource beneath it. Both are recognised by
+    //name alone, as resolving the Project could be served from the very resolutions being invalidated.
+    private void invalidateResolutions( final Path path ) {
+        if ( path == null ) {
+            return;
+        }
+        if ( isPom( path ) || isKModuleFile( path ) ) {
+            resolutionCache.clear();
+        } else {
+            resolutionCache.invalidate( path.toURI() );
+        }
+    }
+
+    private boolean isKModuleFile( final Path path ) {
+        return path.toURI().endsWith( "/" + KMODULE_PATH );
+    }
+
     private boolean hasKModule( final org.uberfire.java.nio.file.Path path ) {
         final org.uberfire.java.nio.file.Path kmodulePath = path.resolve( KMODULE_PATH );
         return Files.exists( kmodulePath );
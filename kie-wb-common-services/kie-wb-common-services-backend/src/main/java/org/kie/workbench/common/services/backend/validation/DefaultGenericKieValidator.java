@@ -19,10 +19,14 @@ import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
-import javax.inject.Named;
 
 import org.drools.workbench.models.datamodel.util.PortablePreconditions;
 import org.guvnor.common.services.backend.file.DotFileFilter;
@@ -35,13 +39,13 @@ import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.Message;
 import org.kie.api.builder.Results;
+import org.kie.workbench.common.services.backend.builder.Builder;
+import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
-import org.uberfire.io.IOService;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.file.DirectoryStream;
-import org.uberfire.java.nio.file.Files;
 
 /**
  * Validator capable of validating generic Kie assets (i.e those that are handled by KieBuilder)
@@ -53,11 +57,13 @@ public class DefaultGenericKieValidator implements GenericValidator {
             "Please check the necessary external dependencies for this project are configured correctly.";
 
     @Inject
-    @Named("ioStrategy")
-    private IOService ioService;
+    private KieProjectService projectService;
 
     @Inject
-    private KieProjectService projectService;
+    private LRUBuilderCache builderCache;
+
+    @Inject
+    private SupportingFileCache supportingFileCache;
 
     //Exclude dot-files
     private final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> dotFileFilter = new DotFileFilter();
@@ -68,19 +74,21 @@ public class DefaultGenericKieValidator implements GenericValidator {
     //Include Project's pom.xml (to ensure dependencies are set-up correctly)
     private final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> pomFileFilter = new PomFileFilter();
 
-    //Filter resource that is being validated
+    //Filter resources that are being validated
     private static class ResourceFilter implements DirectoryStream.Filter<org.uberfire.java.nio.file.Path> {
 
-        private org.uberfire.java.nio.file.Path resourcePath;
+        private final Set<org.uberfire.java.nio.file.Path> resourcePaths = new HashSet<org.uberfire.java.nio.file.Path>();
 
-        ResourceFilter( final Path resourcePath ) {
-            this.resourcePath = Paths.convert( PortablePreconditions.checkNotNull( "resourcePath",
-                                                                                   resourcePath ) );
+        ResourceFilter( final Collection<Path> resourcePaths ) {
+            for ( Path resourcePath : resourcePaths ) {
+                this.resourcePaths.add( Paths.convert( PortablePreconditions.checkNotNull( "resourcePath",
+                                                                                           resourcePath ) ) );
+            }
         }
 
         @Override
         public boolean accept( final org.uberfire.java.nio.file.Path entry ) throws IOException {
-            return entry.equals( resourcePath );
+            return resourcePaths.contains( entry );
         }
 
     }
@@ -97,51 +105,123 @@ public class DefaultGenericKieValidator implements GenericValidator {
             return Collections.emptyList();
         }
 
+        final Map<Path, InputStream> resources = new LinkedHashMap<Path, InputStream>();
+        resources.put( resourcePath,
+                       resource );
+        return validate( project,
+                         resources,
+                         supportingFileFilters ).get( resourcePath );
+    }
+
+    /**
+     * Validate many resources, building each Project once for all of its resources rather than once per resource
+     * @param resources The resources to validate, and their content
+     * @param supportingFileFilters Filters for other files needed to support validation of the resources
+     * @return Validation messages for each resource. Resources that are not within a Project have no messages.
+     */
+    public Map<Path, List<ValidationMessage>> validate( final Map<Path, InputStream> resources,
+                                                        final DirectoryStream.Filter<org.uberfire.java.nio.file.Path>... supportingFileFilters ) {
+        PortablePreconditions.checkNotNull( "resources",
+                                            resources );
+
+        //Group resources by Project, retaining their order
+        final Map<Path, List<ValidationMessage>> validationMessages = new LinkedHashMap<Path, List<ValidationMessage>>();
+        final Map<Project, Map<Path, InputStream>> projectResources = new LinkedHashMap<Project, Map<Path, InputStream>>();
+        for ( Map.Entry<Path, InputStream> e : resources.entrySet() ) {
+            final Project project = projectService.resolveProject( e.getKey() );
+            if ( project == null ) {
+                validationMessages.put( e.getKey(),
+                                        Collections.<ValidationMessage>emptyList() );
+                continue;
+            }
+            Map<Path, InputStream> pr = projectResources.get( project );
+            if ( pr == null ) {
+                pr = new LinkedHashMap<Path, InputStream>();
+                projectResources.put( project,
+                                      pr );
+            }
+            pr.put( e.getKey(),
+                    e.getValue() );
+        }
+
+        for ( Map.Entry<Project, Map<Path, InputStream>> e : projectResources.entrySet() ) {
+            validationMessages.putAll( validate( e.getKey(),
+                                                 e.getValue(),
+                                                 supportingFileFilters ) );
+        }
+        return validationMessages;
+    }
+
+    private Map<Path, List<ValidationMessage>> validate( final Project project,
+                                                         final Map<Path, InputStream> resources,
+                                                         final DirectoryStream.Filter<org.uberfire.java.nio.file.Path>... supportingFileFilters ) {
         final KieServices kieServices = KieServices.Factory.get();
         final KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
         final String projectPrefix = project.getRootPath().toURI();
 
-        //Add resource to be validated first as:-
+        //Add resources to be validated first as:-
         // - KieBuilder fails fast on some compilation issues
         // - KieBuilder validates resources in the order they were added
-        // - We want to catch errors for the resource being validated first
-        final String destinationPath = resourcePath.toURI().substring( projectPrefix.length() + 1 );
-        final BufferedInputStream bis = new BufferedInputStream( resource );
-        kieFileSystem.write( destinationPath,
-                             KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
-
-        //Set-up filters ignoring resource being validated
-        final ResourceFilter resourceFilter = new ResourceFilter( resourcePath );
-
-        //Visit other files that may be needed to support validation of required resource
-        final org.uberfire.java.nio.file.Path nioProjectRoot = Paths.convert( project.getRootPath() );
-        final DirectoryStream<org.uberfire.java.nio.file.Path> directoryStream = Files.newDirectoryStream( nioProjectRoot );
-        visitPaths( projectPrefix,
-                    kieFileSystem,
-                    directoryStream,
-                    resourceFilter,
-                    supportingFileFilters );
-
-        //Validate
+        // - We want to catch errors for the resources being validated first
+        final Map<Path, String> destinationPaths = new LinkedHashMap<Path, String>();
+        final Map<Path, List<ValidationMessage>> validationMessages = new LinkedHashMap<Path, List<ValidationMessage>>();
+        for ( Map.Entry<Path, InputStream> e : resources.entrySet() ) {
+            final String destinationPath = e.getKey().toURI().substring( projectPrefix.length() + 1 );
+            final BufferedInputStream bis = new BufferedInputStream( e.getValue() );
+            kieFileSystem.write( destinationPath,
+                                 KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
+            destinationPaths.put( e.getKey(),
+                                  destinationPath );
+            validationMessages.put( e.getKey(),
+                                    new ArrayList<ValidationMessage>() );
+        }
+
+        //Set-up filters ignoring resources being validated
+        final ResourceFilter resourceFilter = new ResourceFilter( resources.keySet() );
+
+        //Other files that may be needed to support validation of required resources are copied from the Project's
+        //cached Builder, if any, without reading them again. Otherwise they are written from the Project's cached files.
+        final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> supportingFileFilter = new DirectoryStream.Filter<org.uberfire.java.nio.file.Path>() {
+            @Override
+            public boolean accept( final org.uberfire.java.nio.file.Path path ) throws IOException {
+                return acceptPath( path,
+                                   resourceFilter,
+                                   supportingFileFilters );
+            }
+        };
+        if ( !copySupportingFiles( project,
+                                   kieFileSystem,
+                                   supportingFileFilter ) ) {
+            supportingFileCache.write( project,
+                                       kieFileSystem,
+                                       supportingFileFilter );
+        }
+
+        //Validate, routing messages to the resources to which they relate
         final KieBuilder kieBuilder = kieServices.newKieBuilder( kieFileSystem );
-        final List<ValidationMessage> validationMessages = new ArrayList<ValidationMessage>();
         try {
             final Results kieResults = kieBuilder.buildAll().getResults();
-            final String destinationBasePath = getBasePath( destinationPath );
             for ( final Message message : kieResults.getMessages() ) {
                 final String messageBasePath = getBasePath( message.getPath() );
-                if ( destinationBasePath.endsWith( messageBasePath ) ) {
-                    validationMessages.add( convertMessage( message ) );
+                for ( Map.Entry<Path, String> e : destinationPaths.entrySet() ) {
+                    final String destinationBasePath = getBasePath( e.getValue() );
+                    if ( destinationBasePath.endsWith( messageBasePath ) ) {
+                        validationMessages.get( e.getKey() ).add( convertMessage( message ) );
+                    }
                 }
             }
 
         } catch ( NoClassDefFoundError e ) {
             final String msg = MessageFormat.format( ERROR_CLASS_NOT_FOUND,
                                                      e.getLocalizedMessage() );
-            validationMessages.add( makeErrorMessage( msg ) );
+            for ( List<ValidationMessage> messages : validationMessages.values() ) {
+                messages.add( makeErrorMessage( msg ) );
+            }
         } catch ( Throwable e ) {
             final String msg = e.getLocalizedMessage();
-            validationMessages.add( makeErrorMessage( msg ) );
+            for ( List<ValidationMessage> messages : validationMessages.values() ) {
+                messages.add( makeErrorMessage( msg ) );
+            }
         }
 
         return validationMessages;
@@ -158,32 +238,15 @@ public class DefaultGenericKieValidator implements GenericValidator {
         return path;
     }
 
-    private void visitPaths( final String projectPrefix,
-                             final KieFileSystem kieFileSystem,
-                             final DirectoryStream<org.uberfire.java.nio.file.Path> directoryStream,
-                             final ResourceFilter resourceFilter,
-                             final DirectoryStream.Filter<org.uberfire.java.nio.file.Path>... supportingFileFilters ) {
-        for ( final org.uberfire.java.nio.file.Path path : directoryStream ) {
-            if ( Files.isDirectory( path ) ) {
-                visitPaths( projectPrefix,
-                            kieFileSystem,
-                            Files.newDirectoryStream( path ),
-                            resourceFilter,
-                            supportingFileFilters );
-
-            } else {
-                if ( acceptPath( path,
-                                 resourceFilter,
-                                 supportingFileFilters ) ) {
-                    final String destinationPath = path.toUri().toString().substring( projectPrefix.length() + 1 );
-                    final InputStream is = ioService.newInputStream( path );
-                    final BufferedInputStream bis = new BufferedInputStream( is );
-
-                    kieFileSystem.write( destinationPath,
-                                         KieServices.Factory.get().getResources().newInputStreamResource( bis ) );
-                }
-            }
+    private boolean copySupportingFiles( final Project project,
+                                         final KieFileSystem kieFileSystem,
+                                         final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> supportingFileFilter ) {
+        final Builder builder = builderCache.getCachedBuilder( project );
+        if ( builder == null ) {
+            return false;
         }
+        return builder.copyResources( kieFileSystem,
+                                      supportingFileFilter );
     }
 
     private boolean acceptPath( final org.uberfire.java.nio.file.Path path,
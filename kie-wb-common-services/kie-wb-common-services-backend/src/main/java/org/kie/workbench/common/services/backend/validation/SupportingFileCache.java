@@ -0,0 +1,275 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.guvnor.common.services.project.model.Project;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.workbench.common.services.backend.cache.InFlightComputations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.validation.PortablePreconditions;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * A bounded LRU cache of the files of Projects, used to assemble KieFileSystems for validation without traversing
+ * the Project. Each Project's files are listed once; the content of a file is read the first time it is needed.
+ * Adding, deleting, copying or renaming a file, or a change to the Project, discards the Project's files. Updating
+ * a file discards only its content.
+ */
+@ApplicationScoped
+public class SupportingFileCache {
+
+    public static final String MAX_PROJECTS_PROPERTY = "org.kie.workbench.validation.supporting-files.max-projects";
+
+    private static final Logger logger = LoggerFactory.getLogger( SupportingFileCache.class );
+
+    private final int maxProjects = Integer.getInteger( MAX_PROJECTS_PROPERTY,
+                                                        10 );
+
+    @Inject
+    @Named("ioStrategy")
+    private IOService ioService;
+
+    private final Map<Project, ProjectFiles> projects = new LinkedHashMap<Project, ProjectFiles>( 16,
+                                                                                                  0.75f,
+                                                                                                  true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<Project, ProjectFiles> eldest ) {
+            return size() > maxProjects;
+        }
+    };
+
+    //Projects are listed without holding the cache's lock, at most once at a time for each Project
+    private final InFlightComputations<Project, ProjectFiles> computations = new InFlightComputations<Project, ProjectFiles>( this ) {
+        @Override
+        protected ProjectFiles compute( final Project project ) {
+            return listFiles( project );
+        }
+
+        @Override
+        protected void publish( final Project project,
+                                final ProjectFiles files ) {
+            projects.put( project,
+                          files );
+        }
+    };
+
+    public SupportingFileCache() {
+    }
+
+    public SupportingFileCache( final IOService ioService ) {
+        this.ioService = ioService;
+    }
+
+    /**
+     * Write a Project's files accepted by a filter to a KieFileSystem
+     * @param project The Project
+     * @param kieFileSystem The KieFileSystem
+     * @param filter Filter for the Project's files
+     */
+    public void write( final Project project,
+                       final KieFileSystem kieFileSystem,
+                       final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> filter ) {
+        PortablePreconditions.checkNotNull( "project",
+                                            project );
+        for ( final SupportingFile file : getFiles( project ).files.values() ) {
+            if ( filter.accept( file.path ) ) {
+                kieFileSystem.write( file.destinationPath,
+                                     file.getContent() );
+            }
+        }
+    }
+
+    public void onProjectChanged( @Observes final InvalidateDMOProjectCacheEvent event ) {
+        PortablePreconditions.checkNotNull( "event",
+                                            event );
+        final Project project = event.getProject();
+        if ( project != null ) {
+            invalidate( project );
+        }
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidate( event.getPath() );
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onResourceBatchChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( final Path path : event.getBatch().keySet() ) {
+            invalidate( path );
+        }
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        final Path path = event.getPath();
+        if ( path == null ) {
+            return;
+        }
+        final String uri = path.toURI();
+        synchronized ( this ) {
+            for ( final ProjectFiles files : projects.values() ) {
+                final SupportingFile file = files.files.get( uri );
+                if ( file != null ) {
+                    file.invalidateContent();
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidate( final Project project ) {
+        projects.remove( project );
+        computations.invalidate( project );
+    }
+
+    public synchronized void clear() {
+        projects.clear();
+        computations.invalidateAll();
+    }
+
+    public synchronized int size() {
+        return projects.size();
+    }
+
+    //Discard the files of any Project containing the path
+    private synchronized void invalidate( final Path path ) {
+        if ( path == null ) {
+            return;
+        }
+        final String uri = path.toURI();
+        for ( final Project project : new ArrayList<Project>( projects.keySet() ) ) {
+            if ( uri.startsWith( project.getRootPath().toURI() + "/" ) ) {
+                invalidate( project );
+            }
+        }
+    }
+
+    private ProjectFiles getFiles( final Project project ) {
+        synchronized ( this ) {
+            final ProjectFiles files = projects.get( project );
+            if ( files != null ) {
+                return files;
+            }
+        }
+        return computations.get( project );
+    }
+
+    private ProjectFiles listFiles( final Project project ) {
+        final org.uberfire.java.nio.file.Path nioProjectRoot = Paths.convert( project.getRootPath() );
+        final String projectPrefix = project.getRootPath().toURI();
+        final Map<String, SupportingFile> files = new LinkedHashMap<String, SupportingFile>();
+        final List<org.uberfire.java.nio.file.Path> directories = new ArrayList<org.uberfire.java.nio.file.Path>();
+        directories.add( nioProjectRoot );
+        while ( !directories.isEmpty() ) {
+            for ( final org.uberfire.java.nio.file.Path path : Files.newDirectoryStream( directories.remove( 0 ) ) ) {
+                if ( Files.isDirectory( path ) ) {
+                    directories.add( path );
+                } else {
+                    final String uri = path.toUri().toString();
+                    files.put( uri,
+                               new SupportingFile( path,
+                                                   uri.substring( projectPrefix.length() + 1 ) ) );
+                }
+            }
+        }
+        logger.debug( "Listed {} files of Project {}.",
+                      files.size(),
+                      project.getProjectName() );
+        return new ProjectFiles( Collections.unmodifiableMap( files ) );
+    }
+
+    private static class ProjectFiles {
+
+        //File URI -> File
+        private final Map<String, SupportingFile> files;
+
+        private ProjectFiles( final Map<String, SupportingFile> files ) {
+            this.files = files;
+        }
+
+    }
+
+    private class SupportingFile {
+
+        private final org.uberfire.java.nio.file.Path path;
+        private final String destinationPath;
+        private volatile byte[] content;
+        private int version;
+
+        private SupportingFile( final org.uberfire.java.nio.file.Path path,
+                                final String destinationPath ) {
+            this.path = path;
+            this.destinationPath = destinationPath;
+        }
+
+        //Content read whilst the file was being updated is not retained
+        private byte[] getContent() {
+            byte[] bytes = content;
+            if ( bytes == null ) {
+                final int readVersion;
+                synchronized ( this ) {
+                    readVersion = version;
+                }
+                bytes = ioService.readAllBytes( path );
+                synchronized ( this ) {
+                    if ( readVersion == version ) {
+                        content = bytes;
+                    }
+                }
+            }
+            return bytes;
+        }
+
+        private synchronized void invalidateContent() {
+            content = null;
+            version++;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.event.Event;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.model.Project;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.builder.BuildPhase;
+import org.kie.workbench.common.services.shared.builder.BuildStatus;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.rpc.SessionInfo;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class AsyncBuildServiceImplTest {
+
+    private final CountDownLatch started = new CountDownLatch( 1 );
+    private final CountDownLatch release = new CountDownLatch( 1 );
+    private final BuildResults results = new BuildResults();
+
+    private BuildServiceImpl buildService;
+    private Project project;
+    private AsyncBuildServiceImpl service;
+
+    @Before
+    public void setUp() {
+        buildService = mock( BuildServiceImpl.class );
+        project = mock( Project.class );
+        when( project.getRootPath() ).thenReturn( mock( Path.class ) );
+
+        //Builds report a phase, block until released and then honour cancellation
+        when( buildService.build( eq( project ),
+                                  any( BuildProgressMonitor.class ) ) ).thenAnswer( new Answer<BuildResults>() {
+            @Override
+            public BuildResults answer( final InvocationOnMock invocation ) throws Throwable {
+                final BuildProgressMonitor monitor = (BuildProgressMonitor) invocation.getArguments()[ 1 ];
+                monitor.phase( BuildPhase.COMPILING );
+                started.countDown();
+                release.await();
+                if ( monitor.isCancelled() ) {
+                    throw new CancellationException();
+                }
+                return results;
+            }
+        } );
+
+        service = new AsyncBuildServiceImpl( buildService,
+                                             mock( Event.class ) );
+    }
+
+    @Test
+    public void testConcurrentRequestsJoinInProgressBuild() throws Exception {
+        final BuildStatus status1 = service.build( project );
+        assertTrue( started.await( 5,
+                                   TimeUnit.SECONDS ) );
+        final BuildStatus status2 = service.build( project );
+
+        assertEquals( status1.getBuildId(),
+                      status2.getBuildId() );
+        assertEquals( BuildPhase.COMPILING,
+                      service.getStatus( status1.getBuildId() ).getPhase() );
+
+        release.countDown();
+        final BuildStatus completed = awaitFinished( status1.getBuildId() );
+
+        assertEquals( BuildPhase.COMPLETED,
+                      completed.getPhase() );
+        assertSame( results,
+                    completed.getResults() );
+        verify( buildService,
+                times( 1 ) ).build( eq( project ),
+                                    any( BuildProgressMonitor.class ) );
+    }
+
+    @Test
+    public void testSupersededBuildIsCancelled() throws Exception {
+        final BuildStatus status1 = service.build( project );
+        assertTrue( started.await( 5,
+                                   TimeUnit.SECONDS ) );
+
+        //Project changes whilst building; the next request replaces the in-progress build
+        service.onProjectChanged( new InvalidateDMOProjectCacheEvent( mock( SessionInfo.class ),
+                                                                      project,
+                                                                      mock( Path.class ) ) );
+        final BuildStatus status2 = service.build( project );
+        assertFalse( status1.getBuildId().equals( status2.getBuildId() ) );
+
+        release.countDown();
+        assertEquals( BuildPhase.CANCELLED,
+                      awaitFinished( status1.getBuildId() ).getPhase() );
+        assertEquals( BuildPhase.COMPLETED,
+                      awaitFinished( status2.getBuildId() ).getPhase() );
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final BuildStatus status = service.build( project );
+        assertTrue( started.await( 5,
+                                   TimeUnit.SECONDS ) );
+
+        assertTrue( service.cancel( status.getBuildId() ) );
+        release.countDown();
+
+        assertEquals( BuildPhase.CANCELLED,
+                      awaitFinished( status.getBuildId() ).getPhase() );
+        assertFalse( service.cancel( status.getBuildId() ) );
+    }
+
+    @Test
+    public void testUnexpectedErrorIsReportedAsFailure() throws Exception {
+        final Project failing = mock( Project.class );
+        when( failing.getRootPath() ).thenReturn( mock( Path.class ) );
+        when( buildService.build( eq( failing ),
+                                  any( BuildProgressMonitor.class ) ) ).thenThrow( new IllegalStateException( "Unexpected" ) );
+
+        final BuildStatus status = awaitFinished( service.build( failing ).getBuildId() );
+
+        assertEquals( BuildPhase.FAILED,
+                      status.getPhase() );
+        assertEquals( 1,
+                      status.getResults().getErrorMessages().size() );
+        assertEquals( "Unexpected",
+                      status.getResults().getErrorMessages().get( 0 ).getText() );
+    }
+
+    @Test
+    public void testFinishedBuildsAreEvictedWhilstEarlierBuildIsInProgress() throws Exception {
+        final BuildStatus hung = service.build( project );
+        assertTrue( started.await( 5,
+                                   TimeUnit.SECONDS ) );
+
+        final Project other = mock( Project.class );
+        when( other.getRootPath() ).thenReturn( mock( Path.class ) );
+        final String first = awaitFinished( service.build( other ).getBuildId() ).getBuildId();
+        for ( int i = 0; i < 100; i++ ) {
+            awaitFinished( service.build( other ).getBuildId() );
+        }
+
+        //The oldest finished build is evicted, although the build before it has not finished
+        assertNull( service.getStatus( first ) );
+        assertEquals( BuildPhase.COMPILING,
+                      service.getStatus( hung.getBuildId() ).getPhase() );
+
+        release.countDown();
+        assertEquals( BuildPhase.COMPLETED,
+                      awaitFinished( hung.getBuildId() ).getPhase() );
+    }
+
+    private BuildStatus awaitFinished( final String buildId ) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + 5000;
+        BuildStatus status = service.getStatus( buildId );
+        while ( !status.getPhase().isFinished() && System.currentTimeMillis() < timeout ) {
+            Thread.sleep( 10 );
+            status = service.getStatus( buildId );
+        }
+        return status;
+    }
+
+}
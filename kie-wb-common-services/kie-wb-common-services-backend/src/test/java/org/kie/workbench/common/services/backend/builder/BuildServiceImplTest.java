@@ -16,6 +16,7 @@
 
 package org.kie.workbench.common.services.backend.builder;
 
+import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
@@ -26,9 +27,11 @@ import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 
+import org.apache.commons.io.FileUtils;
 import org.drools.core.rule.TypeMetaInfo;
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
 import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.GAV;
 import org.guvnor.m2repo.backend.server.ExtendedM2RepoService;
@@ -221,6 +224,87 @@ public class BuildServiceImplTest {
         assertTrue( results.getMessages().isEmpty() );
     }
 
+    @Test
+    public void testBuilderSkipsUnchangedResource() throws Exception {
+        IOService ioService = getReference( IOService.class );
+        KieProjectService projectService = getReference( KieProjectService.class );
+        ProjectImportsService importsService = getReference( ProjectImportsService.class );
+
+        URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Builder builder = new Builder( path,
+                                             new GAV(),
+                                             ioService,
+                                             projectService,
+                                             importsService,
+                                             new ArrayList<BuildValidationHelper>() );
+
+        final BuildResults results = builder.build();
+        assertTrue( results.getMessages().isEmpty() );
+
+        //Content has not changed since the Builder loaded it
+        final org.uberfire.java.nio.file.Path resource = path.resolve( "src/main/java/org/kie/workbench/common/services/builder/tests/test1/Bean.java" );
+        final IncrementalBuildResults incrementalResults = builder.updateResource( resource );
+
+        assertTrue( incrementalResults.getAddedMessages().isEmpty() );
+        assertTrue( incrementalResults.getRemovedMessages().isEmpty() );
+        assertEquals( 1,
+                      builder.getIncrementalBuildsSkipped() );
+        assertEquals( 0,
+                      builder.getIncrementalBuildsPerformed() );
+    }
+
+    @Test
+    public void testBuilderReconcilesChangedResources() throws Exception {
+        IOService ioService = getReference( IOService.class );
+        KieProjectService projectService = getReference( KieProjectService.class );
+        ProjectImportsService importsService = getReference( ProjectImportsService.class );
+
+        //Work on a copy of the Project as resources are modified
+        final File source = new File( this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" ).toURI() );
+        final File root = new File( FileUtils.getTempDirectory(),
+                                    "reconcile-" + System.nanoTime() );
+        FileUtils.copyDirectory( source,
+                                 root );
+        try {
+            SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+            org.uberfire.java.nio.file.Path path = p.getPath( root.toURI() );
+
+            final Builder builder = new Builder( path,
+                                                 new GAV(),
+                                                 ioService,
+                                                 projectService,
+                                                 importsService,
+                                                 new ArrayList<BuildValidationHelper>() );
+
+            assertTrue( builder.build().getMessages().isEmpty() );
+
+            //Nothing has changed
+            assertEquals( 0,
+                          builder.reconcileResources() );
+
+            //A new resource, containing an error, is detected and built
+            final File drl = new File( root,
+                                       "src/main/resources/rule2.drl" );
+            FileUtils.writeStringToFile( drl,
+                                         "rule r2 when Missing() then end" );
+            assertEquals( 1,
+                          builder.reconcileResources() );
+            assertFalse( builder.build().getErrorMessages().isEmpty() );
+
+            //Deleted resources are removed
+            FileUtils.forceDelete( drl );
+            assertEquals( 1,
+                          builder.reconcileResources() );
+            assertTrue( builder.build().getMessages().isEmpty() );
+
+        } finally {
+            FileUtils.deleteQuietly( root );
+        }
+    }
+
     private <T> T getReference( Class<T> clazz ) {
         Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
         CreationalContext cc = beanManager.createCreationalContext( bean );
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.net.URL;
+import java.util.ArrayList;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.guvnor.common.services.backend.file.PomFileFilter;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class BuilderCopyResourcesTest {
+
+    private BeanManager beanManager;
+
+    @Before
+    public void setUp() throws Exception {
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+    }
+
+    @Test
+    public void testCopyIsIndependentOfBuilder() throws Exception {
+        IOService ioService = getReference( IOService.class );
+        KieProjectService projectService = getReference( KieProjectService.class );
+        ProjectImportsService importsService = getReference( ProjectImportsService.class );
+
+        URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Builder builder = new Builder( path,
+                                             new GAV(),
+                                             ioService,
+                                             projectService,
+                                             importsService,
+                                             new ArrayList<BuildValidationHelper>() );
+        final String contentDigest = builder.getContentDigest();
+
+        final KieFileSystem copy = KieServices.Factory.get().newKieFileSystem();
+        assertTrue( builder.copyResources( copy,
+                                           new PomFileFilter() ) );
+        assertArrayEquals( ioService.readAllBytes( path.resolve( "pom.xml" ) ),
+                           copy.read( "pom.xml" ) );
+
+        copy.write( "pom.xml",
+                    new byte[ 0 ] );
+        assertEquals( contentDigest,
+                      builder.getContentDigest() );
+    }
+
+    @Test
+    public void testNothingIsCopiedWithPendingChanges() throws Exception {
+        URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Builder builder = new Builder( path,
+                                             new GAV(),
+                                             getReference( IOService.class ),
+                                             getReference( KieProjectService.class ),
+                                             getReference( ProjectImportsService.class ),
+                                             new ArrayList<BuildValidationHelper>() );
+
+        //The Builder's content is stale until the change has been applied
+        builder.resourceChanged( path.resolve( "pom.xml" ) );
+        assertFalse( builder.copyResources( KieServices.Factory.get().newKieFileSystem(),
+                                            new PomFileFilter() ) );
+
+        builder.reconcileResources();
+        assertTrue( builder.copyResources( KieServices.Factory.get().newKieFileSystem(),
+                                           new PomFileFilter() ) );
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}
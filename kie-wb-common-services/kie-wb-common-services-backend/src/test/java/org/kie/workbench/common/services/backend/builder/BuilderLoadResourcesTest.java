@@ -0,0 +1,177 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.commons.io.FileUtils;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.shared.validation.model.ValidationMessage;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class BuilderLoadResourcesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BeanManager beanManager;
+
+    private final ExecutorService sequentialLoader = Executors.newSingleThreadExecutor();
+    private final ExecutorService parallelLoader = Executors.newFixedThreadPool( 4 );
+
+    @Before
+    public void setUp() throws Exception {
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+    }
+
+    @After
+    public void tearDown() {
+        sequentialLoader.shutdownNow();
+        parallelLoader.shutdownNow();
+    }
+
+    @Test
+    public void testParallelLoadMatchesSequentialLoad() throws Exception {
+        final File projectDirectory = temporaryFolder.newFolder( "ExampleWithExcel" );
+        FileUtils.copyDirectory( new File( this.getClass().getResource( "/ExampleWithExcel" ).toURI() ),
+                                 projectDirectory );
+        FileUtils.writeStringToFile( new File( projectDirectory,
+                                               ".project" ),
+                                     "dot-file" );
+        FileUtils.writeStringToFile( new File( projectDirectory,
+                                               "src/main/resources/.hidden.drl" ),
+                                     "dot-file" );
+
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath( projectDirectory.toURI() );
+
+        final Builder sequential = makeBuilder( path,
+                                                sequentialLoader );
+        final Builder parallel = makeBuilder( path,
+                                              parallelLoader );
+
+        //Resources are those a sequential traversal of the Project finds, excluding dot-files
+        final Set<String> expectedPaths = new TreeSet<String>();
+        listFiles( projectDirectory,
+                   "",
+                   expectedPaths );
+        assertEquals( expectedPaths,
+                      sequential.getResourcePaths() );
+        assertEquals( expectedPaths,
+                      parallel.getResourcePaths() );
+        assertFalse( expectedPaths.contains( ".project" ) );
+        assertFalse( expectedPaths.contains( "src/main/resources/.hidden.drl" ) );
+
+        assertEquals( sequential.getContentDigest(),
+                      parallel.getContentDigest() );
+        assertEquals( toURIs( sequential.getHandles() ),
+                      toURIs( parallel.getHandles() ) );
+        assertEquals( expectedPaths.size(),
+                      parallel.getHandles().size() );
+
+        assertEquals( 1,
+                      sequential.getNonKieResources().size() );
+        assertEquals( sequential.getNonKieResources(),
+                      parallel.getNonKieResources() );
+    }
+
+    private Builder makeBuilder( final org.uberfire.java.nio.file.Path path,
+                                 final ExecutorService loader ) {
+        final List<BuildValidationHelper> helpers = new ArrayList<BuildValidationHelper>();
+        helpers.add( new SpreadsheetValidationHelper() );
+        return new Builder( path,
+                            new GAV(),
+                            getReference( IOService.class ),
+                            getReference( KieProjectService.class ),
+                            getReference( ProjectImportsService.class ),
+                            helpers,
+                            new ExternalClassVerifier(),
+                            loader );
+    }
+
+    private void listFiles( final File directory,
+                            final String prefix,
+                            final Set<String> paths ) {
+        for ( File file : directory.listFiles() ) {
+            if ( file.isDirectory() ) {
+                listFiles( file,
+                           prefix + file.getName() + "/",
+                           paths );
+            } else if ( !file.getName().startsWith( "." ) ) {
+                paths.add( prefix + file.getName() );
+            }
+        }
+    }
+
+    private Map<String, String> toURIs( final Map<String, Path> handles ) {
+        final Map<String, String> uris = new TreeMap<String, String>();
+        for ( Map.Entry<String, Path> e : handles.entrySet() ) {
+            uris.put( e.getKey(),
+                      e.getValue().toURI() );
+        }
+        return uris;
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+    private static class SpreadsheetValidationHelper implements BuildValidationHelper {
+
+        @Override
+        public boolean accepts( final Path path ) {
+            return path.getFileName().endsWith( ".xls" );
+        }
+
+        @Override
+        public List<ValidationMessage> validate( final Path path ) {
+            return Collections.emptyList();
+        }
+
+    }
+
+}
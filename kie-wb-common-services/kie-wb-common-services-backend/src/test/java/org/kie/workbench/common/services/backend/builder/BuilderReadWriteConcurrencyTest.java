@@ -0,0 +1,280 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.shared.validation.model.ValidationMessage;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class BuilderReadWriteConcurrencyTest {
+
+    private static final int READERS = 50;
+    private static final int UPDATES = 20;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BeanManager beanManager;
+
+    @Before
+    public void setUp() throws Exception {
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+    }
+
+    @Test
+    public void testReadsAreNotBlockedByFullBuild() throws Exception {
+        final IOService ioService = getReference( IOService.class );
+        final KieProjectService projectService = getReference( KieProjectService.class );
+        final ProjectImportsService importsService = getReference( ProjectImportsService.class );
+
+        final URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        //A BuildValidationHelper that can hold a full build "in progress" for as long as the test requires
+        final BlockingValidationHelper helper = new BlockingValidationHelper();
+        final List<BuildValidationHelper> helpers = new ArrayList<BuildValidationHelper>();
+        helpers.add( helper );
+
+        final Builder builder = new Builder( path,
+                                             new GAV(),
+                                             ioService,
+                                             projectService,
+                                             importsService,
+                                             helpers );
+
+        //First build completes normally and becomes the snapshot served to readers
+        final BuildResults results = builder.build();
+        assertTrue( results.getErrorMessages().isEmpty() );
+        final KieModuleMetaData metaData = KieModuleMetaData.Factory.newKieModuleMetaData( builder.getKieModuleIgnoringErrors() );
+        final Class<?> clazz = metaData.getClass( "org.kie.workbench.common.services.builder.tests.test1",
+                                                  "Bean" );
+        assertNotNull( clazz );
+
+        //Second build blocks inside the validation helpers
+        helper.block();
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+        writer.execute( new Runnable() {
+            @Override
+            public void run() {
+                builder.build();
+            }
+        } );
+        assertTrue( helper.awaitEntered() );
+
+        //Readers must complete while the build is still in progress
+        final AtomicInteger completedReads = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final ExecutorService readers = Executors.newFixedThreadPool( READERS );
+        for ( int i = 0; i < READERS; i++ ) {
+            readers.execute( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        assertTrue( builder.isBuilt() );
+                        assertNotNull( builder.getKieModuleIgnoringErrors() );
+                        assertNotNull( builder.getKieContainer() );
+                        assertEquals( TypeSource.JAVA_PROJECT,
+                                      builder.getClassSource( metaData,
+                                                              clazz ) );
+                        completedReads.incrementAndGet();
+                    } catch ( Throwable e ) {
+                        failure.compareAndSet( null,
+                                               e );
+                    }
+                }
+            } );
+        }
+        readers.shutdown();
+        assertTrue( "Reads were blocked by a full build",
+                    readers.awaitTermination( 30,
+                                              TimeUnit.SECONDS ) );
+        assertNoFailure( failure );
+        assertEquals( READERS,
+                      completedReads.get() );
+        assertTrue( helper.isBlocked() );
+
+        //Release the writer
+        helper.release();
+        writer.shutdown();
+        assertTrue( writer.awaitTermination( 1,
+                                             TimeUnit.MINUTES ) );
+        assertTrue( builder.isBuilt() );
+    }
+
+    @Test
+    public void testReadsDuringIncrementalBuilds() throws Exception {
+        final File projectDirectory = temporaryFolder.newFolder( "GuvnorM2RepoDependencyExample1" );
+        FileUtils.copyDirectory( new File( this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" ).toURI() ),
+                                 projectDirectory );
+        final File rule = new File( projectDirectory,
+                                    "src/main/resources/rule1.drl" );
+        final String drl = FileUtils.readFileToString( rule );
+
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final Builder builder = new Builder( p.getPath( projectDirectory.toURI() ),
+                                             new GAV(),
+                                             getReference( IOService.class ),
+                                             getReference( KieProjectService.class ),
+                                             getReference( ProjectImportsService.class ),
+                                             new ArrayList<BuildValidationHelper>() );
+        final BuildResults results = builder.build();
+        assertTrue( results.getErrorMessages().isEmpty() );
+
+        //Readers run continuously whilst the KieModule is updated by incremental builds
+        final AtomicBoolean updating = new AtomicBoolean( true );
+        final AtomicInteger completedReads = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final ExecutorService readers = Executors.newFixedThreadPool( READERS );
+        for ( int i = 0; i < READERS; i++ ) {
+            readers.execute( new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while ( updating.get() ) {
+                            assertNotNull( builder.getKieModuleIgnoringErrors() );
+                            assertNotNull( builder.getKieContainer() );
+                            final KieModuleMetaData metaData = builder.getKieModuleMetaData();
+                            final Class<?> clazz = metaData.getClass( "org.kie.workbench.common.services.builder.tests.test1",
+                                                                      "Bean" );
+                            assertNotNull( clazz );
+                            assertEquals( TypeSource.JAVA_PROJECT,
+                                          builder.getClassSource( metaData,
+                                                                  clazz ) );
+                            completedReads.incrementAndGet();
+                        }
+                    } catch ( Throwable e ) {
+                        failure.compareAndSet( null,
+                                               e );
+                    }
+                }
+            } );
+        }
+
+        try {
+            for ( int i = 0; i < UPDATES; i++ ) {
+                FileUtils.writeStringToFile( rule,
+                                             drl + "\nrule R" + ( i + 2 ) + "\nwhen\n   Bean()\nthen\nend\n" );
+                assertTrue( builder.updateResource( p.getPath( rule.toURI() ) ).getAddedMessages().isEmpty() );
+            }
+        } finally {
+            updating.set( false );
+            readers.shutdown();
+        }
+        assertTrue( readers.awaitTermination( 30,
+                                              TimeUnit.SECONDS ) );
+        assertNoFailure( failure );
+        assertTrue( completedReads.get() > 0 );
+
+        //The KieContainer reflects the last incremental build rather than the full build
+        assertNotNull( builder.getKieContainer().getKieBase().getRule( "org.kie.workbench.common.services.builder.tests.test1",
+                                                                       "R" + ( UPDATES + 1 ) ) );
+    }
+
+    private void assertNoFailure( final AtomicReference<Throwable> failure ) {
+        final Throwable e = failure.get();
+        if ( e != null ) {
+            throw new AssertionError( e );
+        }
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+    private static class BlockingValidationHelper implements BuildValidationHelper {
+
+        private volatile boolean blocking = false;
+        private final CountDownLatch entered = new CountDownLatch( 1 );
+        private final CountDownLatch released = new CountDownLatch( 1 );
+
+        @Override
+        public boolean accepts( final Path path ) {
+            return path.getFileName().equals( "pom.xml" );
+        }
+
+        @Override
+        public List<ValidationMessage> validate( final Path path ) {
+            if ( blocking ) {
+                entered.countDown();
+                try {
+                    released.await( 1,
+                                    TimeUnit.MINUTES );
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Collections.emptyList();
+        }
+
+        void block() {
+            blocking = true;
+        }
+
+        boolean isBlocked() {
+            return released.getCount() > 0;
+        }
+
+        boolean awaitEntered() throws InterruptedException {
+            return entered.await( 1,
+                                  TimeUnit.MINUTES );
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.commons.io.FileUtils;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class BuilderTypeChangesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BeanManager beanManager;
+
+    private File rule;
+    private Builder builder;
+
+    @Before
+    public void setUp() throws Exception {
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+
+        final File projectDirectory = temporaryFolder.newFolder( "ExampleWithExcel" );
+        FileUtils.copyDirectory( new File( this.getClass().getResource( "/ExampleWithExcel" ).toURI() ),
+                                 projectDirectory );
+        rule = new File( projectDirectory,
+                         "src/main/resources/rule1.drl" );
+
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        builder = new Builder( p.getPath( projectDirectory.toURI() ),
+                               new GAV(),
+                               getReference( IOService.class ),
+                               getReference( KieProjectService.class ),
+                               getReference( ProjectImportsService.class ),
+                               new ArrayList<BuildValidationHelper>() );
+    }
+
+    @Test
+    public void testChangesAreTrimmedOnceReadByAllReaders() throws Exception {
+        final Object reader1 = new Object();
+        final Object reader2 = new Object();
+        final int start = builder.getTypeChangeCount();
+        builder.acknowledgeTypeChanges( reader1,
+                                        start );
+        builder.acknowledgeTypeChanges( reader2,
+                                        start );
+
+        changeRule( 1 );
+        final int position = builder.getTypeChangeCount();
+        assertEquals( start + 1,
+                      position );
+        assertEquals( Collections.singleton( Builder.ANY_DECLARED_TYPE ),
+                      builder.getTypeChangesSince( start ) );
+
+        //Still needed by the second reader
+        builder.acknowledgeTypeChanges( reader1,
+                                        position );
+        assertEquals( Collections.singleton( Builder.ANY_DECLARED_TYPE ),
+                      builder.getTypeChangesSince( start ) );
+
+        builder.acknowledgeTypeChanges( reader2,
+                                        position );
+        assertNull( builder.getTypeChangesSince( start ) );
+        assertTrue( builder.getTypeChangesSince( position ).isEmpty() );
+
+        //Positions are unaffected by trimming
+        changeRule( 2 );
+        assertEquals( position + 1,
+                      builder.getTypeChangeCount() );
+        assertEquals( Collections.singleton( Builder.ANY_DECLARED_TYPE ),
+                      builder.getTypeChangesSince( position ) );
+    }
+
+    @Test
+    public void testReaderTooFarBehindStartsAfresh() throws Exception {
+        final Object reader = new Object();
+        final int start = builder.getTypeChangeCount();
+        builder.acknowledgeTypeChanges( reader,
+                                        start );
+
+        //More changes than are retained
+        for ( int i = 0; i <= 1000; i++ ) {
+            changeRule( i );
+        }
+        assertNull( builder.getTypeChangesSince( start ) );
+
+        final int position = builder.getTypeChangeCount();
+        builder.acknowledgeTypeChanges( reader,
+                                        position );
+        changeRule( -1 );
+        assertEquals( Collections.singleton( Builder.ANY_DECLARED_TYPE ),
+                      builder.getTypeChangesSince( position ) );
+    }
+
+    @Test
+    public void testPendingChangesAreApplied() throws Exception {
+        //Nothing is applied before the full build, which reads the current content
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        builder.resourceChanged( p.getPath( rule.toURI() ) );
+        builder.applyPendingChanges();
+        assertTrue( builder.hasPendingChanges() );
+
+        builder.build();
+        final int start = builder.getTypeChangeCount();
+        FileUtils.writeStringToFile( rule,
+                                     FileUtils.readFileToString( rule ) + "\n//changed" );
+        builder.applyPendingChanges();
+
+        assertFalse( builder.hasPendingChanges() );
+        assertEquals( Collections.singleton( Builder.ANY_DECLARED_TYPE ),
+                      builder.getTypeChangesSince( start ) );
+    }
+
+    private void changeRule( final int version ) throws Exception {
+        FileUtils.writeStringToFile( rule,
+                                     FileUtils.readFileToString( rule ) + "\n//" + version );
+        assertEquals( 1,
+                      builder.reconcileResources() );
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}
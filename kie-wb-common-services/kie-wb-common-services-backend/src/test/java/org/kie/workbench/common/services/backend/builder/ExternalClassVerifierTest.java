@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.backend.builder.verifier.Dependency;
+import org.kie.workbench.common.services.backend.builder.verifier.Dependent;
+
+import static org.junit.Assert.*;
+
+public class ExternalClassVerifierTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final ExternalClassVerifier verifier = new ExternalClassVerifier() {
+        @Override
+        protected void verifyClass( final Class<?> clazz ) {
+            verifications.incrementAndGet();
+            super.verifyClass( clazz );
+        }
+    };
+
+    private URL dependentJar;
+    private URL dependencyJar;
+
+    @Before
+    public void setUp() throws Exception {
+        dependentJar = makeJar( "dependent.jar",
+                                Dependent.class ).toURI().toURL();
+        dependencyJar = makeJar( "dependency.jar",
+                                 Dependency.class ).toURI().toURL();
+    }
+
+    @Test
+    public void testVerificationIsSharedBetweenClassLoadersWithTheSameDependencies() throws Exception {
+        final Class<?> dependent1 = loadDependent( dependentJar,
+                                                   dependencyJar );
+        final Class<?> dependent2 = loadDependent( dependentJar,
+                                                   dependencyJar );
+        assertNotSame( dependent1,
+                       dependent2 );
+        assertEquals( verifier.getVerificationKey( dependent1 ),
+                      verifier.getVerificationKey( dependent2 ) );
+
+        assertTrue( verifier.verify( Collections.<Class<?>>singletonList( dependent1 ) ).isEmpty() );
+        assertTrue( verifier.verify( Collections.<Class<?>>singletonList( dependent2 ) ).isEmpty() );
+        assertEquals( 1,
+                      verifications.get() );
+    }
+
+    @Test
+    public void testVerificationIsNotSharedWithClassLoaderMissingADependency() throws Exception {
+        final Class<?> complete = loadDependent( dependentJar,
+                                                 dependencyJar );
+        final Class<?> incomplete = loadDependent( dependentJar );
+        assertEquals( verifier.getArtifactKey( complete ),
+                      verifier.getArtifactKey( incomplete ) );
+        assertFalse( verifier.getVerificationKey( complete ).equals( verifier.getVerificationKey( incomplete ) ) );
+
+        assertTrue( verifier.verify( Collections.<Class<?>>singletonList( complete ) ).isEmpty() );
+
+        final Map<Class<?>, Throwable> failures = verifier.verify( Collections.<Class<?>>singletonList( incomplete ) );
+        assertEquals( 1,
+                      failures.size() );
+        assertTrue( failures.get( incomplete ) instanceof NoClassDefFoundError );
+    }
+
+    @Test
+    public void testParallelVerificationReportsFailuresInOrder() throws Exception {
+        final List<Class<?>> classes = new ArrayList<Class<?>>();
+        final List<Class<?>> incomplete = new ArrayList<Class<?>>();
+        for ( int i = 0; i < 20; i++ ) {
+            if ( i % 2 == 0 ) {
+                classes.add( loadDependent( dependentJar,
+                                            dependencyJar ) );
+            } else {
+                final Class<?> clazz = loadDependent( dependentJar );
+                classes.add( clazz );
+                incomplete.add( clazz );
+            }
+        }
+
+        final Map<Class<?>, Throwable> failures = verifier.verify( classes );
+        assertEquals( incomplete,
+                      new ArrayList<Class<?>>( failures.keySet() ) );
+
+        //Failures are not remembered; successes are
+        verifications.set( 0 );
+        assertEquals( incomplete,
+                      new ArrayList<Class<?>>( verifier.verify( classes ).keySet() ) );
+        assertEquals( incomplete.size(),
+                      verifications.get() );
+    }
+
+    //Loaded without a parent, so classes are only resolved from the given jars
+    private Class<?> loadDependent( final URL... jars ) throws Exception {
+        return new URLClassLoader( jars,
+                                   null ).loadClass( Dependent.class.getName() );
+    }
+
+    private File makeJar( final String name,
+                          final Class<?> clazz ) throws Exception {
+        final File jar = temporaryFolder.newFile( name );
+        final String entry = clazz.getName().replace( '.',
+                                                      '/' ) + ".class";
+        final JarOutputStream jos = new JarOutputStream( new FileOutputStream( jar ) );
+        final InputStream is = clazz.getClassLoader().getResourceAsStream( entry );
+        try {
+            jos.putNextEntry( new JarEntry( entry ) );
+            IOUtils.copy( is,
+                          jos );
+            jos.closeEntry();
+        } finally {
+            is.close();
+            jos.close();
+        }
+        return jar;
+    }
+
+}
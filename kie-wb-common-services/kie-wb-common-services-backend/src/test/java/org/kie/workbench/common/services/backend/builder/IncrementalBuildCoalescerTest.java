@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.model.Project;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class IncrementalBuildCoalescerTest {
+
+    private ScheduledExecutorService scheduler;
+    private LRUBuilderCache cache;
+    private Project project;
+    private IncrementalBuildCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        scheduler = mock( ScheduledExecutorService.class );
+        cache = mock( LRUBuilderCache.class );
+        project = mock( Project.class );
+        coalescer = new IncrementalBuildCoalescer( 1000,
+                                                   scheduler,
+                                                   cache );
+    }
+
+    @Test
+    public void testDisabledWithoutWindow() {
+        final IncrementalBuildCoalescer coalescer = new IncrementalBuildCoalescer( 0,
+                                                                                   scheduler,
+                                                                                   cache );
+        assertFalse( coalescer.isEnabled() );
+    }
+
+    @Test
+    public void testChangesWithinWindowAreMerged() throws Exception {
+        final Builder builder = mock( Builder.class );
+        final IncrementalBuildResults results = new IncrementalBuildResults();
+        when( cache.assertBuilder( project ) ).thenReturn( builder );
+        when( builder.isBuilt() ).thenReturn( true );
+        when( builder.applyBatchResourceChanges( any( Map.class ) ) ).thenReturn( results );
+
+        final Path path1 = mock( Path.class );
+        final Path path2 = mock( Path.class );
+
+        final List<Future<IncrementalBuildResults>> futures = new ArrayList<Future<IncrementalBuildResults>>();
+        futures.add( coalescer.enqueue( project,
+                                        path1,
+                                        ResourceChangeType.ADD ) );
+        futures.add( coalescer.enqueue( project,
+                                        path1,
+                                        ResourceChangeType.UPDATE ) );
+        futures.add( coalescer.enqueue( project,
+                                        path2,
+                                        ResourceChangeType.UPDATE ) );
+        futures.add( coalescer.enqueue( project,
+                                        path2,
+                                        ResourceChangeType.DELETE ) );
+
+        //The window elapses
+        final Runnable batch = getScheduledBatch( 1 );
+        for ( Future<IncrementalBuildResults> future : futures ) {
+            assertFalse( future.isDone() );
+        }
+        batch.run();
+
+        for ( Future<IncrementalBuildResults> future : futures ) {
+            assertSame( results,
+                        future.get() );
+        }
+
+        final ArgumentCaptor<Map> captor = ArgumentCaptor.forClass( Map.class );
+        verify( builder,
+                times( 1 ) ).applyBatchResourceChanges( captor.capture() );
+        final Map<Path, Collection<ResourceChange>> changes = captor.getValue();
+        assertEquals( 2,
+                      changes.size() );
+        assertEquals( ResourceChangeType.ADD,
+                      changes.get( path1 ).iterator().next().getType() );
+        assertEquals( ResourceChangeType.DELETE,
+                      changes.get( path2 ).iterator().next().getType() );
+
+        //Subsequent changes start a new batch
+        coalescer.enqueue( project,
+                           path1,
+                           ResourceChangeType.UPDATE );
+        getScheduledBatch( 2 );
+    }
+
+    @Test
+    public void testBatchIsAppliedToCurrentBuilder() throws Exception {
+        final Builder replaced = mock( Builder.class );
+        final Builder current = mock( Builder.class );
+        final IncrementalBuildResults results = new IncrementalBuildResults();
+        when( cache.assertBuilder( project ) ).thenReturn( replaced );
+
+        final Future<IncrementalBuildResults> future = coalescer.enqueue( project,
+                                                                          mock( Path.class ),
+                                                                          ResourceChangeType.UPDATE );
+
+        //The Builder is replaced in the cache during the window
+        when( cache.assertBuilder( project ) ).thenReturn( current );
+        when( current.isBuilt() ).thenReturn( true );
+        when( current.applyBatchResourceChanges( any( Map.class ) ) ).thenReturn( results );
+        getScheduledBatch( 1 ).run();
+
+        assertSame( results,
+                    future.get() );
+        verify( replaced,
+                never() ).applyBatchResourceChanges( any( Map.class ) );
+    }
+
+    @Test
+    public void testBatchIsLeftToFullBuildOfUnbuiltBuilder() throws Exception {
+        final Builder builder = mock( Builder.class );
+        when( cache.assertBuilder( project ) ).thenReturn( builder );
+        when( builder.isBuilt() ).thenReturn( false );
+
+        final Future<IncrementalBuildResults> future = coalescer.enqueue( project,
+                                                                          mock( Path.class ),
+                                                                          ResourceChangeType.UPDATE );
+        getScheduledBatch( 1 ).run();
+
+        assertTrue( future.get().getAddedMessages().isEmpty() );
+        verify( builder,
+                never() ).applyBatchResourceChanges( any( Map.class ) );
+    }
+
+    private Runnable getScheduledBatch( final int scheduled ) {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass( Runnable.class );
+        verify( scheduler,
+                times( scheduled ) ).schedule( captor.capture(),
+                                               eq( 1000L ),
+                                               eq( TimeUnit.MILLISECONDS ) );
+        return captor.getValue();
+    }
+
+}
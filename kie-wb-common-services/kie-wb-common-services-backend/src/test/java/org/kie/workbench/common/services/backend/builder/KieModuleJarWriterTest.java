@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.commons.io.IOUtils;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.kie.workbench.common.services.shared.project.ProjectImportsService;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class KieModuleJarWriterTest {
+
+    private BeanManager beanManager;
+
+    @Before
+    public void setUp() throws Exception {
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+    }
+
+    @Test
+    public void testJarContainsKieModuleContent() throws Exception {
+        IOService ioService = getReference( IOService.class );
+        KieProjectService projectService = getReference( KieProjectService.class );
+        ProjectImportsService importsService = getReference( ProjectImportsService.class );
+
+        URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Builder builder = new Builder( path,
+                                             new GAV(),
+                                             ioService,
+                                             projectService,
+                                             importsService,
+                                             new ArrayList<BuildValidationHelper>() );
+        assertTrue( builder.build().getMessages().isEmpty() );
+
+        final InternalKieModule kieModule = (InternalKieModule) builder.getKieModule();
+        final File jar = new KieModuleJarWriter().writeToTempFile( kieModule );
+        try {
+            final ZipFile zip = new ZipFile( jar );
+            try {
+                final Set<String> entries = new HashSet<String>();
+                final Enumeration<? extends ZipEntry> itr = zip.entries();
+                while ( itr.hasMoreElements() ) {
+                    final ZipEntry entry = itr.nextElement();
+                    entries.add( entry.getName() );
+                    if ( !entry.isDirectory() ) {
+                        assertTrue( Arrays.equals( kieModule.getBytes( entry.getName() ),
+                                                   IOUtils.toByteArray( zip.getInputStream( entry ) ) ) );
+                    }
+                }
+                assertTrue( entries.containsAll( kieModule.getFileNames() ) );
+                assertTrue( entries.contains( "META-INF/" ) );
+            } finally {
+                zip.close();
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.net.URL;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class LRUBuilderCacheWeightTest {
+
+    private final SimpleFileSystemProvider fs = new SimpleFileSystemProvider();
+    private BeanManager beanManager;
+
+    private Paths paths;
+    private KieProjectService projectService;
+    private LRUBuilderCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        //Bootstrap WELD container
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+
+        paths = getReference( Paths.class );
+        projectService = getReference( KieProjectService.class );
+        cache = getReference( LRUBuilderCache.class );
+    }
+
+    @Test
+    public void testEvictionByWeight() throws Exception {
+        final KieProject project1 = getProject( "/GuvnorM2RepoDependencyExample1/pom.xml" );
+        final KieProject project2 = getProject( "/BuildChangeListenerRepo/pom.xml" );
+
+        cache.setMaxWeight( 1 );
+
+        final Builder builder1 = cache.assertBuilder( project1 );
+        assertTrue( builder1.getEstimatedWeight() > 0 );
+        assertEquals( builder1.getEstimatedWeight(),
+                      cache.getWeight( project1 ) );
+
+        //Project1's Builder is the least recently used and is evicted to make room
+        cache.assertBuilder( project2 );
+        assertEquals( 0,
+                      cache.getWeight( project1 ) );
+        assertTrue( cache.getWeight( project2 ) > 0 );
+
+        cache.assertBuilder( project2 );
+
+        assertEquals( 1,
+                      cache.getHits() );
+        assertEquals( 2,
+                      cache.getMisses() );
+        assertEquals( 1,
+                      cache.getEvictions() );
+    }
+
+    @Test
+    public void testEvictionByIdleTime() throws Exception {
+        final KieProject project1 = getProject( "/GuvnorM2RepoDependencyExample1/pom.xml" );
+        final KieProject project2 = getProject( "/BuildChangeListenerRepo/pom.xml" );
+
+        cache.setMaxIdle( 100 );
+
+        cache.assertBuilder( project1 );
+        Thread.sleep( 200 );
+        cache.assertBuilder( project2 );
+
+        assertEquals( 0,
+                      cache.getWeight( project1 ) );
+        assertEquals( 1,
+                      cache.getEvictions() );
+    }
+
+    private KieProject getProject( final String resource ) throws Exception {
+        final URL url = this.getClass().getResource( resource );
+        return projectService.resolveProject( paths.convert( fs.getPath( url.toURI() ) ) );
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}
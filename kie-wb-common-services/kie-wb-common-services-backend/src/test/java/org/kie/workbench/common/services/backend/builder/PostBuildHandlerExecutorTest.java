@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.service.PostBuildHandler;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PostBuildHandlerExecutorTest {
+
+    private final BuildResults results = new BuildResults();
+
+    @Test
+    public void testSlowHandlerTimesOut() {
+        final PostBuildHandlerExecutor executor = new PostBuildHandlerExecutor( 200,
+                                                                                false );
+        final FastHandler fast = new FastHandler();
+        final long start = System.currentTimeMillis();
+        executor.execute( Arrays.<PostBuildHandler>asList( new SlowHandler(),
+                                                           fast ),
+                          results );
+
+        assertTrue( System.currentTimeMillis() - start < 5000 );
+        assertEquals( 0,
+                      fast.processed.getCount() );
+        assertEquals( 1,
+                      executor.getTimings().get( SlowHandler.class.getName() ).getTimeouts() );
+        assertEquals( 1,
+                      executor.getTimings().get( FastHandler.class.getName() ).getInvocations() );
+    }
+
+    @Test
+    public void testFailingHandlerDoesNotAffectOthers() {
+        final PostBuildHandlerExecutor executor = new PostBuildHandlerExecutor( 5000,
+                                                                                false );
+        final FastHandler fast = new FastHandler();
+        executor.execute( Arrays.<PostBuildHandler>asList( new FailingHandler(),
+                                                           fast ),
+                          results );
+
+        assertEquals( 0,
+                      fast.processed.getCount() );
+        assertEquals( 1,
+                      executor.getTimings().get( FailingHandler.class.getName() ).getFailures() );
+    }
+
+    @Test
+    public void testAsynchronousHandlers() throws Exception {
+        final PostBuildHandlerExecutor executor = new PostBuildHandlerExecutor( 200,
+                                                                                true );
+        final FastHandler fast = new FastHandler();
+        final long start = System.currentTimeMillis();
+        executor.execute( Arrays.<PostBuildHandler>asList( new SlowHandler(),
+                                                           fast ),
+                          results );
+
+        assertTrue( System.currentTimeMillis() - start < 1000 );
+        assertTrue( fast.processed.await( 5,
+                                          TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    public void testHandlersOnCallerThread() {
+        final PostBuildHandlerExecutor executor = new PostBuildHandlerExecutor( 200,
+                                                                                false,
+                                                                                true );
+        final FastHandler fast = new FastHandler();
+        executor.execute( Arrays.<PostBuildHandler>asList( new FailingHandler(),
+                                                           fast ),
+                          results );
+
+        assertEquals( 0,
+                      fast.processed.getCount() );
+        assertSame( Thread.currentThread(),
+                    fast.thread );
+        assertEquals( 1,
+                      executor.getTimings().get( FailingHandler.class.getName() ).getFailures() );
+    }
+
+    private static class SlowHandler implements PostBuildHandler {
+
+        @Override
+        public void process( final BuildResults results ) {
+            try {
+                Thread.sleep( 10000 );
+            } catch ( InterruptedException e ) {
+                //Interrupted on timeout
+            }
+        }
+
+    }
+
+    private static class FastHandler implements PostBuildHandler {
+
+        private final CountDownLatch processed = new CountDownLatch( 1 );
+        private volatile Thread thread;
+
+        @Override
+        public void process( final BuildResults results ) {
+            thread = Thread.currentThread();
+            processed.countDown();
+        }
+
+    }
+
+    private static class FailingHandler implements PostBuildHandler {
+
+        @Override
+        public void process( final BuildResults results ) {
+            throw new IllegalStateException( "Failed" );
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InFlightComputationsTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+
+    private final Map<String, String> cache = new HashMap<String, String>();
+    private final AtomicInteger computed = new AtomicInteger();
+    private final CountDownLatch slowStarted = new CountDownLatch( 1 );
+    private final CountDownLatch slowRelease = new CountDownLatch( 1 );
+
+    private final InFlightComputations<String, String> computations = new InFlightComputations<String, String>( cache ) {
+        @Override
+        protected String compute( final String key ) {
+            computed.incrementAndGet();
+            if ( "slow".equals( key ) ) {
+                slowStarted.countDown();
+                try {
+                    slowRelease.await();
+                } catch ( InterruptedException e ) {
+                    throw new IllegalStateException( e );
+                }
+            }
+            return key.toUpperCase();
+        }
+
+        @Override
+        protected void publish( final String key,
+                                final String value ) {
+            cache.put( key,
+                       value );
+        }
+    };
+
+    @After
+    public void tearDown() {
+        slowRelease.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOtherKeysAreNotDelayed() throws Exception {
+        final Future<String> slow = executor.submit( get( "slow" ) );
+        assertTrue( slowStarted.await( 5,
+                                       TimeUnit.SECONDS ) );
+
+        //Other keys are computed while the slow computation is in progress
+        final long start = System.nanoTime();
+        for ( int i = 0; i < 100; i++ ) {
+            assertEquals( "FAST" + i,
+                          executor.submit( get( "fast" + i ) ).get( 5,
+                                                                    TimeUnit.SECONDS ) );
+        }
+        assertTrue( TimeUnit.NANOSECONDS.toSeconds( System.nanoTime() - start ) < 5 );
+        assertFalse( slow.isDone() );
+
+        slowRelease.countDown();
+        assertEquals( "SLOW",
+                      slow.get( 5,
+                                TimeUnit.SECONDS ) );
+        synchronized ( cache ) {
+            assertEquals( 101,
+                          cache.size() );
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsShareComputation() throws Exception {
+        final List<Future<String>> futures = new ArrayList<Future<String>>();
+        futures.add( executor.submit( get( "slow" ) ) );
+        assertTrue( slowStarted.await( 5,
+                                       TimeUnit.SECONDS ) );
+        for ( int i = 0; i < 3; i++ ) {
+            futures.add( executor.submit( get( "slow" ) ) );
+        }
+        slowRelease.countDown();
+
+        for ( Future<String> future : futures ) {
+            assertEquals( "SLOW",
+                          future.get( 5,
+                                      TimeUnit.SECONDS ) );
+        }
+        assertEquals( 1,
+                      computed.get() );
+    }
+
+    @Test
+    public void testInvalidatedComputationIsNotPublished() throws Exception {
+        final Future<String> slow = executor.submit( get( "slow" ) );
+        assertTrue( slowStarted.await( 5,
+                                       TimeUnit.SECONDS ) );
+        synchronized ( cache ) {
+            computations.invalidate( "slow" );
+        }
+        slowRelease.countDown();
+
+        assertEquals( "SLOW",
+                      slow.get( 5,
+                                TimeUnit.SECONDS ) );
+        synchronized ( cache ) {
+            assertFalse( cache.containsKey( "slow" ) );
+        }
+    }
+
+    private Callable<String> get( final String key ) {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return computations.get( key );
+            }
+        };
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.enums;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EnumExpressionCacheTest {
+
+    private static final String EXPRESSION = "[ 'a', 'b' ]";
+
+    @Test
+    public void testExpressionsAreCachedPerClassLoader() throws Exception {
+        final EnumExpressionCache cache = new EnumExpressionCache( 10 );
+        final ClassLoader classLoader1 = new URLClassLoader( new URL[ 0 ] );
+        final ClassLoader classLoader2 = new URLClassLoader( new URL[ 0 ] );
+
+        final Serializable compiled = cache.compile( EXPRESSION,
+                                                     classLoader1 );
+        assertSame( compiled,
+                    cache.compile( EXPRESSION,
+                                   classLoader1 ) );
+        assertNotSame( compiled,
+                       cache.compile( EXPRESSION,
+                                      classLoader2 ) );
+
+        final Object value = cache.evaluateStatic( EXPRESSION,
+                                                   classLoader1 );
+        assertEquals( 2,
+                      ( (List) value ).size() );
+        assertSame( value,
+                    cache.evaluateStatic( EXPRESSION,
+                                          classLoader1 ) );
+
+        cache.invalidate( classLoader1 );
+        assertNotSame( compiled,
+                       cache.compile( EXPRESSION,
+                                      classLoader1 ) );
+        assertNotSame( value,
+                       cache.evaluateStatic( EXPRESSION,
+                                             classLoader1 ) );
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        final EnumExpressionCache cache = new EnumExpressionCache( 2 );
+        final ClassLoader classLoader = new URLClassLoader( new URL[ 0 ] );
+        for ( int i = 0; i < 5; i++ ) {
+            cache.compile( "[ '" + i + "' ]",
+                           classLoader );
+        }
+        assertEquals( 2,
+                      cache.size() );
+    }
+
+}
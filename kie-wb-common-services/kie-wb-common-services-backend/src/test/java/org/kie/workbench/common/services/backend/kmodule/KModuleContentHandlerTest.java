@@ -36,6 +36,38 @@ public class KModuleContentHandlerTest {
         assertNotNull(model);
     }
 
+    @Test
+    public void testModelIsReusedWhileXmlIsUnchanged() throws Exception {
+        KModuleContentHandler kModuleContentHandler = new KModuleContentHandler();
+        String xml = readResource("simpleKModule.xml");
+        KModuleModel model = kModuleContentHandler.toModel("default://p0/kmodule.xml", xml);
+
+        assertSame(model, kModuleContentHandler.toModel("default://p0/kmodule.xml", xml));
+        assertNotSame(model, kModuleContentHandler.toModel("default://p1/kmodule.xml", xml));
+
+        KModuleModel changed = kModuleContentHandler.toModel("default://p0/kmodule.xml", kModuleContentHandler.toString(new KModuleModel()));
+        assertNotSame(model, changed);
+        assertTrue(changed.getKBases().isEmpty());
+
+        kModuleContentHandler.invalidate("default://p0/kmodule.xml");
+        assertNotSame(changed, kModuleContentHandler.toModel("default://p0/kmodule.xml", kModuleContentHandler.toString(new KModuleModel())));
+    }
+
+    @Test
+    public void testStaxParser() throws Exception {
+        KModuleContentHandler kModuleContentHandler;
+        System.setProperty(KModuleContentHandler.STAX_PARSER_PROPERTY, "true");
+        try {
+            kModuleContentHandler = new KModuleContentHandler();
+        } finally {
+            System.clearProperty(KModuleContentHandler.STAX_PARSER_PROPERTY);
+        }
+        KModuleModel model = kModuleContentHandler.toModel(readResource("simpleKModule.xml"));
+
+        assertNotNull(model.get("org.kie.example1"));
+        assertEquals("ksession1", model.get("org.kie.example1").getKSessions().get(0).getName());
+    }
+
     private String readResource(String name) {
         StringBuffer contents = new StringBuffer();
         BufferedReader reader = null;
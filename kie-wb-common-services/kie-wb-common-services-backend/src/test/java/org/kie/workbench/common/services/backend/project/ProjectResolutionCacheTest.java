@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.project;
+
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Test;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ProjectResolutionCacheTest {
+
+    private static final String ROOT = "default://p0/project";
+
+    private final ProjectResolutionCache cache = new ProjectResolutionCache( 3 );
+
+    @Test
+    public void testHitRatio() {
+        final Path root = mock( Path.class );
+        assertEquals( 0,
+                      cache.getHitRatio(),
+                      0 );
+
+        assertNull( cache.getProjectRoot( ROOT + "/src/main/resources" ) );
+        cache.putProjectRoot( ROOT + "/src/main/resources",
+                              root,
+                              cache.getGeneration() );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/src/main/resources" ) );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/src/main/resources" ) );
+
+        assertEquals( 2,
+                      cache.getHits() );
+        assertEquals( 1,
+                      cache.getMisses() );
+        assertEquals( 2.0 / 3,
+                      cache.getHitRatio(),
+                      0.0001 );
+    }
+
+    @Test
+    public void testInvalidateDiscardsFoldersBeneath() {
+        final Path root = mock( Path.class );
+        final Package pkg = mock( Package.class );
+        cache.putProjectRoot( ROOT + "/src/main/resources/org",
+                              root,
+                              cache.getGeneration() );
+        cache.putPackage( ROOT + "/src/main/resources/org",
+                          pkg,
+                          cache.getGeneration() );
+        cache.putProjectRoot( ROOT + "/src/main/java/org",
+                              root,
+                              cache.getGeneration() );
+
+        cache.invalidate( ROOT + "/src/main/resources" );
+
+        assertNull( cache.getProjectRoot( ROOT + "/src/main/resources/org" ) );
+        assertNull( cache.getPackage( ROOT + "/src/main/resources/org" ) );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/src/main/java/org" ) );
+    }
+
+    @Test
+    public void testInvalidateKeepsSiblingsWithTheSamePrefix() {
+        final Path root = mock( Path.class );
+        cache.putProjectRoot( ROOT + "/src/main/resources/org",
+                              root,
+                              cache.getGeneration() );
+        cache.putProjectRoot( ROOT + "/src/main/resources/organisation",
+                              root,
+                              cache.getGeneration() );
+
+        cache.invalidate( ROOT + "/src/main/resources/org" );
+
+        assertNull( cache.getProjectRoot( ROOT + "/src/main/resources/org" ) );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/src/main/resources/organisation" ) );
+    }
+
+    @Test
+    public void testResolutionsMadeBeforeInvalidationAreIgnored() {
+        final Path root = mock( Path.class );
+        final long generation = cache.getGeneration();
+
+        cache.invalidate( ROOT + "/src" );
+        cache.putProjectRoot( ROOT + "/src/main/resources/org",
+                              root,
+                              generation );
+
+        assertNull( cache.getProjectRoot( ROOT + "/src/main/resources/org" ) );
+        assertEquals( 0,
+                      cache.size() );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvictedWhenFull() {
+        final Path root = mock( Path.class );
+        for ( int i = 0; i < 3; i++ ) {
+            cache.putProjectRoot( ROOT + "/" + i,
+                                  root,
+                                  cache.getGeneration() );
+        }
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/0" ) );
+
+        cache.putProjectRoot( ROOT + "/3",
+                              root,
+                              cache.getGeneration() );
+        assertEquals( 3,
+                      cache.size() );
+        assertNull( cache.getProjectRoot( ROOT + "/1" ) );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/0" ) );
+        assertSame( root,
+                    cache.getProjectRoot( ROOT + "/3" ) );
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.validation;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.guvnor.common.services.shared.validation.model.ValidationMessage;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class DefaultGenericKieValidatorBatchTest {
+
+    private final SimpleFileSystemProvider fs = new SimpleFileSystemProvider();
+    private BeanManager beanManager;
+
+    private Paths paths;
+    private DefaultGenericKieValidator validator;
+
+    @Before
+    public void setUp() throws Exception {
+        //Bootstrap WELD container
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+
+        paths = getReference( Paths.class );
+        validator = getReference( DefaultGenericKieValidator.class );
+    }
+
+    @Test
+    public void testMessagesAreRoutedToEachResource() throws Exception {
+        final Path valid = getPath( "/BuildChangeListenerRepo/src/main/resources/add.drl" );
+        final Path invalid = getPath( "/BuildChangeListenerRepo/src/main/resources/update.drl" );
+
+        final Map<Path, InputStream> resources = new LinkedHashMap<Path, InputStream>();
+        resources.put( valid,
+                       new ByteArrayInputStream( "rule \"Added\"\nwhen\nthen\nend".getBytes( "UTF-8" ) ) );
+        resources.put( invalid,
+                       new ByteArrayInputStream( "rule \"Updated\"\nwhen\nthen\nend smurf".getBytes( "UTF-8" ) ) );
+
+        final Map<Path, List<ValidationMessage>> messages = validator.validate( resources );
+
+        assertEquals( 2,
+                      messages.size() );
+        assertTrue( messages.get( valid ).isEmpty() );
+        assertFalse( messages.get( invalid ).isEmpty() );
+    }
+
+    private Path getPath( final String resource ) throws Exception {
+        final URL url = this.getClass().getResource( resource );
+        return paths.convert( fs.getPath( url.toURI() ) );
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}
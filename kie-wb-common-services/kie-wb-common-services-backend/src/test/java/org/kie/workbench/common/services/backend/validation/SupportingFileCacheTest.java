@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.validation;
+
+import java.net.URL;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.guvnor.common.services.backend.file.PomFileFilter;
+import org.jboss.weld.environment.se.StartMain;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class SupportingFileCacheTest {
+
+    private final SimpleFileSystemProvider fs = new SimpleFileSystemProvider();
+    private BeanManager beanManager;
+
+    private Paths paths;
+    private IOService ioService;
+    private KieProjectService projectService;
+    private SupportingFileCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        //Bootstrap WELD container
+        StartMain startMain = new StartMain( new String[ 0 ] );
+        beanManager = startMain.go().getBeanManager();
+
+        paths = getReference( Paths.class );
+        ioService = getReference( IOService.class );
+        projectService = getReference( KieProjectService.class );
+        cache = getReference( SupportingFileCache.class );
+    }
+
+    @Test
+    public void testFilesAreCachedUntilInvalidated() throws Exception {
+        final URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1/pom.xml" );
+        final org.uberfire.java.nio.file.Path pom = fs.getPath( url.toURI() );
+        final KieProject project = projectService.resolveProject( paths.convert( pom ) );
+
+        final KieFileSystem kieFileSystem = KieServices.Factory.get().newKieFileSystem();
+        cache.write( project,
+                     kieFileSystem,
+                     new PomFileFilter() );
+        assertArrayEquals( ioService.readAllBytes( pom ),
+                           kieFileSystem.read( "pom.xml" ) );
+        assertEquals( 1,
+                      cache.size() );
+
+        cache.invalidate( project );
+        assertEquals( 0,
+                      cache.size() );
+    }
+
+    private <T> T getReference( Class<T> clazz ) {
+        Bean bean = (Bean) beanManager.getBeans( clazz ).iterator().next();
+        CreationalContext cc = beanManager.createCreationalContext( bean );
+        return (T) beanManager.getReference( bean,
+                                             clazz,
+                                             cc );
+    }
+
+}